@@ -0,0 +1,141 @@
+package com.lithium.mineraloil.selenium.browsers;
+
+import com.lithium.mineraloil.selenium.elements.DaemonThreads;
+import com.lithium.mineraloil.selenium.exceptions.DriverNotFoundException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Starts browser sessions on a shared pool of threads so several can start at once.
+ *
+ * A failed attempt is retried right away and then with a growing (capped) backoff until the startup
+ * timeout runs out. An attempt that takes longer than the attempt timeout is given up on, and if its
+ * session does come up later it's quit instead of being left running on the grid.
+ */
+@Slf4j
+public class DriverStarter {
+    private static final long ATTEMPT_TIMEOUT_MS = SECONDS.toMillis(30);
+    private static final long STARTUP_TIMEOUT_MS = SECONDS.toMillis(60);
+    private static final long INITIAL_BACKOFF_MS = 250;
+    private static final long MAX_BACKOFF_MS = 4000;
+    private static final int RECORDED_ATTEMPTS = 100;
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(DaemonThreads.named("mineraloil-driver-starter"));
+    private static final LinkedList<Attempt> attempts = new LinkedList<>();
+
+    private DriverStarter() {
+    }
+
+    // the threads sessions are started on, for starting several at once
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the most recent startup attempts, oldest first
+     */
+    public static List<Attempt> getAttempts() {
+        synchronized (attempts) {
+            return new ArrayList<>(attempts);
+        }
+    }
+
+    static WebDriver start(String description, Callable<WebDriver> startDriver) {
+        long expireTime = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            long startedAt = System.nanoTime();
+            CompletableFuture<WebDriver> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return startDriver.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            long remaining = expireTime - System.currentTimeMillis();
+            try {
+                WebDriver driver = future.get(Math.min(ATTEMPT_TIMEOUT_MS, Math.max(remaining, 1)), MILLISECONDS);
+                record(description, startedAt, null);
+                return driver;
+            } catch (TimeoutException e) {
+                record(description, startedAt, "timed out");
+                quitWhenStarted(future);
+            } catch (ExecutionException e) {
+                record(description, startedAt, String.valueOf(e.getCause()));
+                log.info("Failed to get driver connection...retrying", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                quitWhenStarted(future);
+                throw new DriverNotFoundException("Interrupted while starting a driver");
+            }
+
+            long backoff = attempt == 1 ? 0 : Math.min(INITIAL_BACKOFF_MS << Math.min(attempt - 2, 16), MAX_BACKOFF_MS);
+            if (expireTime - System.currentTimeMillis() <= backoff) {
+                throw new DriverNotFoundException("Was unable to get a Remote Driver!!!");
+            }
+            sleep(backoff);
+        }
+    }
+
+    // a session that comes up after its attempt was given up on would otherwise be orphaned
+    private static void quitWhenStarted(CompletableFuture<WebDriver> future) {
+        future.thenAccept(driver -> {
+            log.info("Quitting driver that started after its attempt timed out");
+            try {
+                driver.quit();
+            } catch (RuntimeException e) {
+                log.debug("Unable to quit orphaned driver", e);
+            }
+        });
+    }
+
+    private static void record(String description, long startedAt, String error) {
+        Attempt attempt = new Attempt(description, NANOSECONDS.toMillis(System.nanoTime() - startedAt), error);
+        log.info(String.format("Driver startup attempt for %s took %sms%s", description, attempt.getDurationMs(),
+                               error == null ? "" : " and failed: " + error));
+        synchronized (attempts) {
+            attempts.addLast(attempt);
+            if (attempts.size() > RECORDED_ATTEMPTS) attempts.removeFirst();
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverNotFoundException("Interrupted while starting a driver");
+        }
+    }
+
+    @Value
+    public static class Attempt {
+        String browser;
+        long durationMs;
+        // null when the attempt succeeded
+        String error;
+
+        public boolean isSucceeded() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.lithium.mineraloil.selenium.browsers;
+
+import com.google.common.io.ByteStreams;
+import com.lithium.mineraloil.selenium.elements.DaemonThreads;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the commands of remote sessions over one pool of kept-alive connections instead of a new client per
+ * session, set it as the httpClientFactory of the {@link com.lithium.mineraloil.selenium.elements.DriverConfiguration}
+ * and share the same factory between configurations to share the pool.
+ *
+ * - at most maxConnectionsPerRoute connections are open to each grid endpoint, maxConnections overall
+ * - connections are kept alive for as long as the server allows, or keepAlive when it doesn't say, and idle
+ *   ones are closed in the background
+ * - connect and read timeouts apply to the connection and to each read, the command timeout to the whole
+ *   command; a command over its deadline is aborted and fails with an IOException instead of hanging the test
+ * - responses are only gzipped when gzip is turned on, it needs setting before the first session is started
+ */
+@Slf4j
+public class PooledHttpClientFactory implements HttpClient.Factory {
+    private static final long IDLE_CHECK_INTERVAL_S = 30;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("mineraloil-http-client"));
+
+    private final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    private volatile long connectTimeoutMs = TimeUnit.SECONDS.toMillis(10);
+    private volatile long readTimeoutMs = TimeUnit.MINUTES.toMillis(2);
+    private volatile long commandTimeoutMs = TimeUnit.MINUTES.toMillis(3);
+    private volatile long keepAliveMs = TimeUnit.SECONDS.toMillis(60);
+    private volatile boolean gzip;
+    private CloseableHttpClient client;
+    private final ScheduledFuture<?> idleCheck;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalRequestNanos = new AtomicLong();
+
+    public PooledHttpClientFactory() {
+        setMaxConnectionsPerRoute(32);
+        setMaxConnections(256);
+        idleCheck = scheduler.scheduleWithFixedDelay(this::cleanupIdleClients, IDLE_CHECK_INTERVAL_S, IDLE_CHECK_INTERVAL_S, TimeUnit.SECONDS);
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnections) {
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        connectionManager.setMaxTotal(maxConnections);
+    }
+
+    public void setConnectTimeout(long timeout, TimeUnit unit) {
+        connectTimeoutMs = unit.toMillis(timeout);
+    }
+
+    public void setReadTimeout(long timeout, TimeUnit unit) {
+        readTimeoutMs = unit.toMillis(timeout);
+    }
+
+    public void setCommandTimeout(long timeout, TimeUnit unit) {
+        commandTimeoutMs = unit.toMillis(timeout);
+    }
+
+    public void setKeepAlive(long duration, TimeUnit unit) {
+        keepAliveMs = unit.toMillis(duration);
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    @Override
+    public HttpClient.Builder builder() {
+        return new HttpClient.Builder() {
+            @Override
+            public HttpClient createClient(URL url) {
+                return new PooledClient(url, connectionTimeout.toMillis(), readTimeout.toMillis());
+            }
+        }.connectionTimeout(Duration.ofMillis(connectTimeoutMs)).readTimeout(Duration.ofMillis(readTimeoutMs));
+    }
+
+    @Override
+    public HttpClient createClient(URL url) {
+        return new PooledClient(url, connectTimeoutMs, readTimeoutMs);
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS);
+    }
+
+    public PoolMetrics getMetrics() {
+        PoolStats stats = connectionManager.getTotalStats();
+        long count = requests.get();
+        return new PoolMetrics(stats.getLeased(),
+                               stats.getPending(),
+                               stats.getAvailable(),
+                               stats.getMax(),
+                               count,
+                               failures.get(),
+                               timeouts.get(),
+                               count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRequestNanos.get() / count));
+    }
+
+    public synchronized void close() {
+        idleCheck.cancel(false);
+        try {
+            if (client != null) client.close();
+        } catch (IOException e) {
+            log.debug("Unable to close http client", e);
+        }
+        connectionManager.shutdown();
+    }
+
+    // built on first use so gzip can still be set after the factory is created
+    private synchronized CloseableHttpClient getClient() {
+        if (client == null) {
+            HttpClientBuilder builder = HttpClientBuilder.create()
+                                                         .setConnectionManager(connectionManager)
+                                                         .setKeepAliveStrategy((response, context) -> {
+                                                             long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                                                             return keepAlive > 0 ? keepAlive : keepAliveMs;
+                                                         });
+            if (!gzip) builder.disableContentCompression();
+            client = builder.build();
+        }
+        return client;
+    }
+
+    private class PooledClient implements HttpClient {
+        private final String baseUrl;
+        private final RequestConfig requestConfig;
+
+        private PooledClient(URL url, long connectTimeoutMs, long readTimeoutMs) {
+            baseUrl = url.toString().replaceAll("/$", "");
+            requestConfig = RequestConfig.custom()
+                                         .setConnectTimeout((int) Math.min(connectTimeoutMs, Integer.MAX_VALUE))
+                                         .setConnectionRequestTimeout((int) Math.min(connectTimeoutMs, Integer.MAX_VALUE))
+                                         .setSocketTimeout((int) Math.min(readTimeoutMs, Integer.MAX_VALUE))
+                                         .build();
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) throws IOException {
+            HttpRequestBase method = createMethod(request);
+            method.setConfig(requestConfig);
+            for (String name : request.getHeaderNames()) {
+                // the length is set from the entity
+                if ("Content-Length".equalsIgnoreCase(name)) continue;
+                for (String value : request.getHeaders(name)) {
+                    method.addHeader(name, value);
+                }
+            }
+            if (method instanceof HttpPost) {
+                ((HttpPost) method).setEntity(new ByteArrayEntity(ByteStreams.toByteArray(request.consumeContentStream())));
+            }
+
+            long start = System.nanoTime();
+            requests.incrementAndGet();
+            // set before aborting: the aborted request can fail before the scheduled task has returned
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ScheduledFuture<?> deadline = scheduler.schedule(() -> {
+                timedOut.set(true);
+                method.abort();
+            }, commandTimeoutMs, TimeUnit.MILLISECONDS);
+            try (CloseableHttpResponse response = getClient().execute(method)) {
+                HttpResponse result = new HttpResponse();
+                result.setStatus(response.getStatusLine().getStatusCode());
+                for (Header header : response.getAllHeaders()) {
+                    // the content has already been decompressed
+                    if (header.getName().equalsIgnoreCase("Content-Encoding") || header.getName().equalsIgnoreCase("Content-Length")) continue;
+                    result.addHeader(header.getName(), header.getValue());
+                }
+                result.setContent(response.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(response.getEntity()));
+                result.setTargetHost(method.getURI().getHost());
+                return result;
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                if (timedOut.get()) {
+                    timeouts.incrementAndGet();
+                    throw new IOException(String.format("Command timed out after %sms: %s %s", commandTimeoutMs, request.getMethod(), request.getUri()), e);
+                }
+                throw e;
+            } finally {
+                deadline.cancel(false);
+                totalRequestNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        private HttpRequestBase createMethod(HttpRequest request) throws UnsupportedEncodingException {
+            StringBuilder url = new StringBuilder(baseUrl).append(request.getUri());
+            String separator = request.getUri().contains("?") ? "&" : "?";
+            for (String name : request.getQueryParameterNames()) {
+                for (String value : request.getQueryParameters(name)) {
+                    url.append(separator).append(URLEncoder.encode(name, "UTF-8")).append('=').append(URLEncoder.encode(value, "UTF-8"));
+                    separator = "&";
+                }
+            }
+            switch (request.getMethod()) {
+                case DELETE:
+                    return new HttpDelete(url.toString());
+                case GET:
+                    return new HttpGet(url.toString());
+                case POST:
+                    return new HttpPost(url.toString());
+                default:
+                    throw new IllegalArgumentException("Unsupported http method: " + request.getMethod());
+            }
+        }
+    }
+
+    @Value
+    public static class PoolMetrics {
+        int leasedConnections;
+        int pendingConnections;
+        int availableConnections;
+        int maxConnections;
+        long requests;
+        long failures;
+        long timeouts;
+        long averageRequestMs;
+    }
+}
@@ -4,9 +4,12 @@ import com.lithium.mineraloil.selenium.elements.DriverConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.HttpClient;
 
 import java.net.URL;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 
 @Slf4j
@@ -14,11 +17,13 @@ public class RemoteChromeBrowser extends RemoteBrowser {
     private final ChromeOptions chromeOptions;
     private final int remoteChromePort;
     private final String remoteWebdriverAddress;
+    private final HttpClient.Factory httpClientFactory;
 
     public RemoteChromeBrowser(DriverConfiguration driverConfiguration) {
         chromeOptions = driverConfiguration.getChromeOptions();
         remoteChromePort = driverConfiguration.getRemotePort() != 0 ? driverConfiguration.getRemotePort() : 4444;
         remoteWebdriverAddress = driverConfiguration.getRemoteWebdriverAddress();
+        httpClientFactory = driverConfiguration.getHttpClientFactory();
     }
 
     @Override
@@ -48,7 +53,8 @@ public class RemoteChromeBrowser extends RemoteBrowser {
 
         @Override
         public WebDriver call() {
-            return new RemoteWebDriver(serverAddress, chromeOptions);
+            if (httpClientFactory == null) return new RemoteWebDriver(serverAddress, chromeOptions);
+            return new RemoteWebDriver(new HttpCommandExecutor(Collections.emptyMap(), serverAddress, httpClientFactory), chromeOptions);
         }
     }
 
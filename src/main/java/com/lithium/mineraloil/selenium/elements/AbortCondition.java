@@ -0,0 +1,52 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Checked while waiting for or retrying an element so a wait that can't succeed ends right away
+ * instead of running out its timeout. Register conditions with {@link Driver#addAbortCondition(AbortCondition)}.
+ */
+@FunctionalInterface
+public interface AbortCondition {
+    /**
+     * @return why waiting should be aborted, or null to keep waiting
+     */
+    String check(Driver driver);
+
+    // an uncaught javascript error logged to the console since the last time this condition fired
+    static AbortCondition uncaughtJavascriptError() {
+        return new ConsoleErrorCondition();
+    }
+
+    // the page title or the start of its text looks like a 5xx error page
+    static AbortCondition serverErrorPage() {
+        return errorPage(Pattern.compile("\\b5\\d\\d\\b.{0,20}(internal server error|bad gateway|service unavailable|gateway time-?out)"
+                                                 + "|^\\s*(internal server error|bad gateway|service unavailable|gateway time-?out)\\b",
+                                         Pattern.CASE_INSENSITIVE));
+    }
+
+    static AbortCondition errorPage(Pattern pattern) {
+        return driver -> {
+            String page = driver.getPageSummary();
+            return page != null && pattern.matcher(page).find() ? "Error page is displayed: " + page.trim().split("\n")[0] : null;
+        };
+    }
+
+    static AbortCondition alertPresent() {
+        return driver -> driver.isAlertPresent() ? "Alert is open: " + driver.getAlertText() : null;
+    }
+
+    static AbortCondition unreachableBrowser() {
+        return driver -> {
+            try {
+                driver.getWindowHandles();
+                return null;
+            } catch (UnreachableBrowserException | NoSuchSessionException e) {
+                return "Browser is no longer reachable: " + e.getClass().getSimpleName();
+            }
+        };
+    }
+}
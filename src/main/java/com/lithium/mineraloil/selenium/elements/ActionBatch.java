@@ -0,0 +1,256 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.google.common.base.Preconditions;
+import com.lithium.mineraloil.selenium.exceptions.ActionBatchException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Records operations on elements and runs them in one script call instead of locating, waiting on and
+ * acting on each element in turn, e.g. to fill in a form:
+ *
+ * <pre>
+ * driver.batch()
+ *       .type(nameField, "Ann")
+ *       .check(termsCheckbox)
+ *       .select(countryList, "Canada")
+ *       .click(submitButton)
+ *       .run();
+ * </pre>
+ *
+ * Steps are run in the order they were added, one script per run of steps in the same frame. A step whose
+ * element isn't there, displayed or enabled yet is waited for and the batch picks up from that step; any other
+ * failure stops the batch with an ActionBatchException naming the step and the element's locator.
+ *
+ * The script acts the way a page's own javascript would: values are set and input/change events fired, clicks
+ * are element.click(). Steps that need trusted native events (keystrokes, hovering, drag and drop, anything a
+ * page checks event.isTrusted for) have to be added with natively(), which runs them through selenium between
+ * the scripted steps. Elements with a hover element and file uploads are rejected rather than run without them.
+ */
+public class ActionBatch {
+    private static final String BATCH_JS = LocatorChain.FIND_JS +
+            "function fire(el) {" +
+            "  el.dispatchEvent(new Event('input', {bubbles: true}));" +
+            "  el.dispatchEvent(new Event('change', {bubbles: true}));" +
+            "}" +
+            "function perform(op, el, a, b) {" +
+            "  if (op === 'click') {" +
+            "    el.click();" +
+            "  } else if (op === 'type') {" +
+            "    if (el.focus) el.focus();" +
+            "    if (el.isContentEditable) {" +
+            "      el.textContent = a;" +
+            "    } else if (el instanceof HTMLInputElement || el instanceof HTMLTextAreaElement) {" +
+            "      var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;" +
+            "      Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, a);" +
+            "    } else {" +
+            "      return {error: 'is not a text field', fatal: true};" +
+            "    }" +
+            "    fire(el);" +
+            "  } else if (op === 'check') {" +
+            "    if (el.checked !== a) el.click();" +
+            "    if (el.checked !== a) return {error: 'could not be ' + (a ? 'checked' : 'unchecked'), fatal: true};" +
+            "  } else if (op === 'select') {" +
+            "    var option = null;" +
+            "    for (var i = 0; i < el.options.length && !option; i++) {" +
+            "      if ((a === 'text' && el.options[i].text === b) || (a === 'value' && el.options[i].value === b)) option = el.options[i];" +
+            "    }" +
+            "    if (!option) return {error: 'has no option with ' + a + ' ' + b, fatal: true};" +
+            "    if (option.disabled) return {error: 'option with ' + a + ' ' + b + ' is disabled', fatal: true};" +
+            "    if (!option.selected) {" +
+            "      option.selected = true;" +
+            "      fire(el);" +
+            "    }" +
+            "  }" +
+            "  return null;" +
+            "}" +
+            "var steps = arguments[0], handles = arguments[1];" +
+            "for (var i = arguments[2]; i < steps.length; i++) {" +
+            "  var step = steps[i], el = step[1] ? locate(step[1], handles[i], false) : handles[i];" +
+            "  if (!el) return {step: i, error: 'not found'};" +
+            "  if (!el.getClientRects().length) return {step: i, error: 'not displayed'};" +
+            "  if (el.disabled) return {step: i, error: 'not enabled'};" +
+            "  var failure = perform(step[0], el, step[2], step[3]);" +
+            "  if (failure) return {step: i, error: failure.error, fatal: !!failure.fatal};" +
+            "}" +
+            "return null;";
+
+    private final Driver driver;
+    private final List<Step> steps = new ArrayList<>();
+
+    ActionBatch(Driver driver) {
+        this.driver = driver;
+    }
+
+    public ActionBatch click(Element element) {
+        return add(new Step("click", checkScriptable(element), null, null));
+    }
+
+    /**
+     * Replaces the value of a text field (or contenteditable element) and fires input and change events.
+     */
+    public ActionBatch type(Element element, String text) {
+        return add(new Step("type", checkScriptable(element), text, null));
+    }
+
+    public ActionBatch check(CheckboxElement element) {
+        return set(element, true);
+    }
+
+    public ActionBatch uncheck(CheckboxElement element) {
+        return set(element, false);
+    }
+
+    public ActionBatch set(CheckboxElement element, boolean checked) {
+        return add(new Step("check", checkScriptable(element), checked, null));
+    }
+
+    public ActionBatch select(RadioElement element) {
+        return add(new Step("check", checkScriptable(element), true, null));
+    }
+
+    public ActionBatch select(SelectListElement element, String optionText) {
+        return add(new Step("select", checkScriptable(element), "text", optionText));
+    }
+
+    public ActionBatch selectByValue(SelectListElement element, String value) {
+        return add(new Step("select", checkScriptable(element), "value", value));
+    }
+
+    /**
+     * Runs an action through selenium at this point of the batch, for anything that needs trusted native events.
+     * The steps added before it are run first.
+     */
+    public ActionBatch natively(String description, Runnable action) {
+        return add(new Step(description, action));
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    public void run() {
+        int start = 0;
+        while (start < steps.size()) {
+            Step first = steps.get(start);
+            if (first.nativeAction != null) {
+                driver.recordAction("native", null, null, first.operation);
+                first.nativeAction.run();
+                start++;
+                continue;
+            }
+            List<Object> framePath = first.element.getFramePath();
+            int end = start + 1;
+            while (end < steps.size() && steps.get(end).nativeAction == null && steps.get(end).element.getFramePath().equals(framePath)) {
+                end++;
+            }
+            runScript(start, end, framePath);
+            start = end;
+        }
+    }
+
+    private ActionBatch add(Step step) {
+        steps.add(step);
+        return this;
+    }
+
+    private Element checkScriptable(Element element) {
+        Preconditions.checkNotNull(element);
+        if (element instanceof FileUploadElement) {
+            throw new IllegalArgumentException("File uploads can't be batched, use FileUploadElement.type(): " + element.getBy());
+        }
+        if (element.getHoverElement() != null) {
+            throw new IllegalArgumentException("Elements that need a hover can't be batched, add them with natively(): " + element.getBy());
+        }
+        return element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runScript(int start, int end, List<Object> framePath) {
+        List<Step> segment = steps.subList(start, end);
+        // the step to continue from when the script is retried, and why the script last stopped there
+        int[] next = {0};
+        String[] stepFailure = {null};
+        WebDriverException[] scriptFailure = {null};
+        try {
+            driver.getRetrier().callUntilTimeout(SECONDS.toMillis(Waiter.DISPLAY_WAIT_S), () -> {
+                driver.switchToFramePath(framePath);
+                List<Object> scriptSteps = new ArrayList<>();
+                List<Object> handles = new ArrayList<>();
+                for (int i = 0; i < segment.size(); i++) {
+                    Step step = segment.get(i);
+                    LocatorChain locatorChain = canLocateInScript(step.element) ? LocatorChain.compile(step.element) : null;
+                    scriptSteps.add(Arrays.asList(step.operation, locatorChain == null ? null : locatorChain.getSteps(), step.firstArgument, step.secondArgument));
+                    if (i < next[0]) {
+                        handles.add(null);
+                    } else {
+                        handles.add(locatorChain == null ? step.element.locateElement() : locatorChain.getBaseElement());
+                    }
+                }
+                Map<String, Object> failure = (Map<String, Object>) driver.executeScript(BATCH_JS, scriptSteps, handles, next[0]);
+                if (failure == null) return null;
+
+                next[0] = ((Number) failure.get("step")).intValue();
+                stepFailure[0] = describe(start + next[0], (String) failure.get("error"));
+                if (Boolean.TRUE.equals(failure.get("fatal"))) throw new ActionBatchException(stepFailure[0]);
+                scriptFailure[0] = new NoSuchElementException(stepFailure[0]);
+                throw scriptFailure[0];
+            }, () -> driver.getFrameTracker().invalidate());
+        } catch (WebDriverException e) {
+            // the script's own failure is already described, anything else came from selenium
+            if (e == scriptFailure[0]) throw new ActionBatchException(stepFailure[0]);
+            throw new ActionBatchException(describe(start + next[0], e.getMessage()));
+        }
+
+        segment.stream()
+               .filter(step -> step.element instanceof SelectListElement)
+               .forEach(step -> ((SelectListElement) step.element).invalidateOptions());
+        driver.recordAction("batch", segment.get(0).element.getBy(), null,
+                            segment.stream().map(step -> step.operation + " " + step.element.getBy()).collect(Collectors.joining(", ")));
+    }
+
+    // the same elements the locator chain can compose, the rest are located by the client and passed in
+    private static boolean canLocateInScript(Element element) {
+        return element.getIndex() < 0
+                && !element.isHandleCacheEnabled()
+                && !element.isAutoScrollIntoView()
+                && !element.isAutoScrollToEnd();
+    }
+
+    private String describe(int stepIndex, String error) {
+        Step step = steps.get(stepIndex);
+        return String.format("Step %s of %s (%s %s) failed: %s", stepIndex + 1, steps.size(), step.operation, step.element.getBy(), error);
+    }
+
+    private static class Step {
+        private final String operation;
+        private final Element element;
+        private final Object firstArgument;
+        private final Object secondArgument;
+        private final Runnable nativeAction;
+
+        private Step(String operation, Element element, Object firstArgument, Object secondArgument) {
+            this.operation = operation;
+            this.element = element;
+            this.firstArgument = firstArgument;
+            this.secondArgument = secondArgument;
+            this.nativeAction = null;
+        }
+
+        private Step(String description, Runnable nativeAction) {
+            this.operation = description;
+            this.element = null;
+            this.firstArgument = null;
+            this.secondArgument = null;
+            this.nativeAction = nativeAction;
+        }
+    }
+}
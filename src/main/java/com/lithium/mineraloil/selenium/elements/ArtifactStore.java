@@ -0,0 +1,226 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the artifacts captured by {@link Screenshot} under the root directory.
+ *
+ * - names carry a sequence number and a file is never overwritten, so two captures can't collide
+ * - html and logs are gzipped
+ * - a payload identical to one already stored isn't written again, its index entry points at the stored copy
+ * - once the files under the root go over the size budget (or past the maximum age) the least recently
+ *   stored or reused ones are deleted
+ * - every artifact is listed in index.tsv by test name: time, test, sha-256 prefix, bytes and relative path
+ *
+ * The file system work normally happens on the artifact writer's thread, but once the writer's queue is full
+ * the caller writes too, so the bookkeeping is only touched while holding the store's lock.
+ */
+@Slf4j
+class ArtifactStore {
+    static final String INDEX_FILE = "index.tsv";
+    private static final List<String> COMPRESSED_SUFFIXES = Arrays.asList(".html", ".log");
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final ArtifactWriter writer;
+    private volatile File rootDirectory;
+    private volatile long maxBytes = Long.MAX_VALUE;
+    private volatile long maxAgeMs = Long.MAX_VALUE;
+
+    // guarded by this, see write()
+    private final Map<String, File> filesByHash = new HashMap<>();
+    // in access order so reused files are evicted last
+    private final LinkedHashMap<File, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private File scannedDirectory;
+
+    ArtifactStore(ArtifactWriter writer, File rootDirectory) {
+        this.writer = writer;
+        this.rootDirectory = rootDirectory;
+    }
+
+    void setRootDirectory(File rootDirectory) {
+        this.rootDirectory = rootDirectory;
+    }
+
+    File getRootDirectory() {
+        return rootDirectory;
+    }
+
+    void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    void setMaxAgeMs(long maxAgeMs) {
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /**
+     * @param name the relative path of the artifact without a suffix
+     * @return a path under the root directory no other artifact of this run will use
+     */
+    File newFile(String name, String suffix) {
+        String compressed = COMPRESSED_SUFFIXES.contains(suffix) ? ".gz" : "";
+        return new File(rootDirectory, String.format("%s_%s%s%s", name, sequence.incrementAndGet(), suffix, compressed));
+    }
+
+    void store(File file, String testName, byte[] content) {
+        writer.execute(() -> write(file, testName, content));
+    }
+
+    /**
+     * Stores a png screenshot, transcoding it to jpeg first when a quality between 0 and 1 is given.
+     */
+    void storeImage(File file, String testName, byte[] png, float jpegQuality) {
+        writer.execute(() -> write(file, testName, jpegQuality > 0 ? ArtifactWriter.toJpeg(png, jpegQuality) : png));
+    }
+
+    void flush() {
+        writer.flush();
+    }
+
+    private void write(File file, String testName, byte[] content) {
+        String hash = sha256(content);
+        synchronized (this) {
+            write(file, testName, content, hash);
+        }
+    }
+
+    // runs with the lock held: evict() and scanIfNeeded() use the bookkeeping too
+    private void write(File file, String testName, byte[] content, String hash) {
+        scanIfNeeded();
+        File stored = filesByHash.get(hash);
+        if (stored != null && sizes.containsKey(stored) && stored.exists()) {
+            log.debug(String.format("%s is identical to %s, not writing it again", file, stored));
+            sizes.get(stored);
+            stored.setLastModified(System.currentTimeMillis());
+        } else {
+            stored = writeNew(file, file.getName().endsWith(".gz") ? gzip(content) : content);
+            if (stored == null) return;
+            filesByHash.put(hash, stored);
+            sizes.put(stored, stored.length());
+            totalBytes += stored.length();
+        }
+        appendToIndex(testName, hash, content.length, stored);
+        evict(stored);
+    }
+
+    // picks another name if the file is already there, e.g. written by another process
+    private File writeNew(File file, byte[] content) {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            File candidate = attempt == 0 ? file : new File(file.getParentFile(), attempt + "_" + file.getName());
+            try {
+                ArtifactWriter.writeFile(candidate, content, StandardOpenOption.CREATE_NEW);
+                return candidate;
+            } catch (FileAlreadyExistsException e) {
+                log.debug(candidate + " already exists");
+            } catch (IOException e) {
+                log.error("Unable to write " + candidate.getAbsolutePath() + ": " + e.toString());
+                return null;
+            }
+        }
+        log.error("Unable to find a free file name for " + file.getAbsolutePath());
+        return null;
+    }
+
+    private void appendToIndex(String testName, String hash, long bytes, File file) {
+        String line = String.format("%s\t%s\t%s\t%s\t%s\n",
+                                    Instant.now(),
+                                    testName,
+                                    hash.substring(0, 12),
+                                    bytes,
+                                    rootDirectory.toPath().relativize(file.toPath()));
+        try {
+            ArtifactWriter.writeFile(new File(rootDirectory, INDEX_FILE),
+                                     line.getBytes(StandardCharsets.UTF_8),
+                                     StandardOpenOption.CREATE,
+                                     StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Unable to update artifact index: " + e.toString());
+        }
+    }
+
+    private void evict(File keep) {
+        long oldest = maxAgeMs == Long.MAX_VALUE ? Long.MIN_VALUE : System.currentTimeMillis() - maxAgeMs;
+        Iterator<Map.Entry<File, Long>> entries = sizes.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<File, Long> entry = entries.next();
+            File file = entry.getKey();
+            if (file.equals(keep)) break;
+            if (totalBytes <= maxBytes && file.lastModified() >= oldest) break;
+            if (file.delete() || !file.exists()) {
+                log.debug("Evicted test artifact " + file);
+                totalBytes -= entry.getValue();
+                entries.remove();
+            }
+        }
+    }
+
+    // counts what earlier runs left under the root so the budget covers them too
+    private void scanIfNeeded() {
+        File root = rootDirectory;
+        if (root.equals(scannedDirectory)) return;
+        scannedDirectory = root;
+        filesByHash.clear();
+        sizes.clear();
+        totalBytes = 0;
+        if (!root.isDirectory()) return;
+        try (Stream<Path> paths = Files.walk(root.toPath())) {
+            List<File> files = paths.map(Path::toFile)
+                                    .filter(File::isFile)
+                                    .filter(file -> !file.getName().equals(INDEX_FILE))
+                                    .sorted(Comparator.comparingLong(File::lastModified))
+                                    .collect(Collectors.toList());
+            for (File file : files) {
+                sizes.put(file, file.length());
+                totalBytes += file.length();
+            }
+        } catch (IOException e) {
+            log.error("Unable to read existing test artifacts: " + e.toString());
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the writing of test artifacts on a background thread so the test only pays for capturing them.
+ *
+ * The queue is bounded: once it's full the artifact is written on the calling thread instead, which
+ * keeps a burst of failures from holding an unbounded number of screenshots in memory.
+ */
+@Slf4j
+class ArtifactWriter {
+    private static final int QUEUE_SIZE = 32;
+    private static final long FLUSH_TIMEOUT_S = 60;
+
+    private final ThreadPoolExecutor executor;
+    // tasks handed to execute() that haven't finished yet, guarded by this
+    private long pending;
+
+    ArtifactWriter() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(QUEUE_SIZE),
+                                          DaemonThreads.named("mineraloil-artifact-writer"),
+                                          new ThreadPoolExecutor.CallerRunsPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+    }
+
+    void execute(Runnable task) {
+        synchronized (this) {
+            pending++;
+        }
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Unable to write test artifact: " + e.toString());
+            } finally {
+                finished();
+            }
+        });
+    }
+
+    private synchronized void finished() {
+        if (--pending == 0) notifyAll();
+    }
+
+    /**
+     * Blocks until everything handed to the writer so far is on disk.
+     *
+     * This counts the outstanding writes rather than queueing a marker task behind them: with a full queue
+     * the marker would run straight away on the calling thread.
+     */
+    synchronized void flush() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(FLUSH_TIMEOUT_S);
+        try {
+            while (pending > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.error(String.format("Unable to flush test artifacts: %s still being written after %ss", pending, FLUSH_TIMEOUT_S));
+                    return;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void writeFile(File file, byte[] content, StandardOpenOption... options) throws IOException {
+        File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new IOException("Unable to create directory: " + dir.getAbsolutePath());
+        }
+        Set<StandardOpenOption> openOptions = new HashSet<>(Arrays.asList(options));
+        openOptions.add(StandardOpenOption.WRITE);
+        try (FileChannel channel = FileChannel.open(file.toPath(), openOptions)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    static byte[] toJpeg(byte[] png, float quality) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            // jpeg has no alpha channel so draw the screenshot onto an opaque image first
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            rgb.createGraphics().drawImage(image, 0, 0, Color.WHITE, null);
+
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(Math.min(quality, 1f));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(imageOut);
+                writer.write(null, new IIOImage(rgb, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to transcode screenshot, keeping it as png: " + e.toString());
+            return png;
+        }
+    }
+}
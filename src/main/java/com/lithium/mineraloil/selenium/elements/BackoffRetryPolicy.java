@@ -0,0 +1,51 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.Value;
+import lombok.experimental.Wither;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter. A stale element is retried right away since the page
+ * has re-rendered and the element can usually be located again; anything else (element not
+ * found, not visible, etc) backs off so a missing element doesn't hammer the browser.
+ *
+ * Use {@link #defaults()} and the with* methods to adjust it:
+ * <pre>
+ * driver.setRetryPolicy(BackoffRetryPolicy.defaults().withMaxAttempts(4));
+ * </pre>
+ */
+@Value
+@Wither
+public class BackoffRetryPolicy implements RetryPolicy {
+    int maxAttempts;
+    long initialBackoffMs;
+    long maxBackoffMs;
+    double multiplier;
+    // fraction of the backoff that is randomized, 0 disables jitter
+    double jitter;
+
+    public static BackoffRetryPolicy defaults() {
+        return new BackoffRetryPolicy(2, 50, 1000, 2, 0.5);
+    }
+
+    @Override
+    public boolean isRetryable(WebDriverException exception) {
+        return !(exception instanceof UnreachableBrowserException
+                || exception instanceof NoSuchSessionException
+                || exception instanceof SessionNotCreatedException);
+    }
+
+    @Override
+    public long getBackoffMillis(int attempt, WebDriverException exception) {
+        if (exception instanceof StaleElementReferenceException) return 0;
+
+        double backoff = Math.min(maxBackoffMs, initialBackoffMs * Math.pow(multiplier, attempt - 1));
+        return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
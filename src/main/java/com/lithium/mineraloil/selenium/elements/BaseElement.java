@@ -4,6 +4,7 @@ package com.lithium.mineraloil.selenium.elements;
 import lombok.experimental.Delegate;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,17 +19,18 @@ public class BaseElement implements Element<BaseElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private BaseElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private BaseElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<BaseElement> toList() {
         List<BaseElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new BaseElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                   .withIframe(getIframeElement())
-                                                                                   .withHover(getHoverElement())
-                                                                                   .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new BaseElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                           .withIframe(getIframeElement())
+                                                                                                           .withHover(getHoverElement())
+                                                                                                           .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
@@ -0,0 +1,99 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Waits on an element condition from inside the page. A MutationObserver and requestAnimationFrame
+ * loop re-evaluate the condition and the async script returns as soon as it holds, so a wait costs
+ * one round trip per chunk rather than several per poll.
+ *
+ * Each script call is capped at CHUNK_MS to stay well under the driver's script timeout. If the
+ * script can't run (e.g. the frame isn't scriptable or the element's base can't be located) the
+ * caller is told to fall back to polling.
+ */
+@Slf4j
+class BrowserWaiter {
+    static final long CHUNK_MS = 5000;
+    // defines displayed(element), an approximation of selenium's isDisplayed
+    static final String DISPLAYED_JS =
+            "function displayed(el) {" +
+            "  if (!el || !el.isConnected) return false;" +
+            "  var style = window.getComputedStyle(el);" +
+            "  if (style.visibility === 'hidden' || style.opacity === '0') return false;" +
+            "  return !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length);" +
+            "}";
+    private static final String WAIT_JS = LocatorChain.FIND_JS + DISPLAYED_JS +
+            "var steps = arguments[0], base = arguments[1], condition = arguments[2], timeout = arguments[3];" +
+            "var done = arguments[arguments.length - 1];" +
+            "function check() {" +
+            "  var el = locate(steps, base, false);" +
+            "  switch (condition) {" +
+            "    case 'DISPLAYED': return displayed(el);" +
+            "    case 'NOT_DISPLAYED': return !displayed(el);" +
+            "    case 'ENABLED': return displayed(el) && !el.disabled;" +
+            "    case 'NOT_ENABLED': return !displayed(el) || !!el.disabled;" +
+            "  }" +
+            "}" +
+            "if (check()) return done('SATISFIED');" +
+            "var finished = false, frame, timer, observer;" +
+            "function finish(result) {" +
+            "  if (finished) return;" +
+            "  finished = true;" +
+            "  observer.disconnect();" +
+            "  cancelAnimationFrame(frame);" +
+            "  clearTimeout(timer);" +
+            "  done(result);" +
+            "}" +
+            "function tick() {" +
+            "  if (check()) return finish('SATISFIED');" +
+            "  frame = requestAnimationFrame(tick);" +
+            "}" +
+            "observer = new MutationObserver(function() { if (!finished && check()) finish('SATISFIED'); });" +
+            "observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            "frame = requestAnimationFrame(tick);" +
+            "timer = setTimeout(function() { finish('TIMED_OUT'); }, timeout);";
+
+    enum Condition {
+        DISPLAYED, NOT_DISPLAYED, ENABLED, NOT_ENABLED
+    }
+
+    enum Result {
+        SATISFIED, TIMED_OUT, UNSUPPORTED
+    }
+
+    private final Driver driver;
+    private final LocatorChain locatorChain;
+    private final Runnable switchToElementContext;
+
+    BrowserWaiter(Driver driver, LocatorChain locatorChain, Runnable switchToElementContext) {
+        this.driver = driver;
+        this.locatorChain = locatorChain;
+        this.switchToElementContext = switchToElementContext;
+    }
+
+    Result await(Condition condition, long expireTime) {
+        List<List<String>> steps = locatorChain.getSteps();
+        while (true) {
+            long remaining = expireTime - Instant.now().toEpochMilli();
+            if (remaining <= 0) return Result.TIMED_OUT;
+            driver.checkAbortConditions();
+            try {
+                switchToElementContext.run();
+                Object result = driver.executeAsyncScript(WAIT_JS,
+                                                          steps,
+                                                          locatorChain.getBaseElement(),
+                                                          condition.name(),
+                                                          Math.min(CHUNK_MS, remaining));
+                if (Result.SATISFIED.name().equals(result)) return Result.SATISFIED;
+            } catch (WebDriverException e) {
+                log.debug(String.format("Unable to wait for %s in the browser, falling back to polling", locatorChain), e);
+                driver.getFrameTracker().invalidate();
+                return Result.UNSUPPORTED;
+            }
+        }
+    }
+}
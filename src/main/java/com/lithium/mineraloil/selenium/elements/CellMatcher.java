@@ -0,0 +1,39 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.Value;
+
+/**
+ * Matches the text of a table cell for {@link TableElement#findRow(String, CellMatcher)}.
+ *
+ * Matching is done in the browser so only these serializable matchers are supported. Cell text
+ * is trimmed with non-breaking spaces normalized, the same as {@link TableData}.
+ */
+@Value
+public class CellMatcher {
+    String type;
+    String value;
+
+    public static CellMatcher equalTo(String value) {
+        return new CellMatcher("equalTo", value);
+    }
+
+    public static CellMatcher contains(String value) {
+        return new CellMatcher("contains", value);
+    }
+
+    public static CellMatcher startsWith(String value) {
+        return new CellMatcher("startsWith", value);
+    }
+
+    /**
+     * @param regex a javascript regular expression, found anywhere in the cell text unless anchored
+     */
+    public static CellMatcher matches(String regex) {
+        return new CellMatcher("matches", regex);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s '%s'", type, value);
+    }
+}
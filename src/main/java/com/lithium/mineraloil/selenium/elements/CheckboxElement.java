@@ -2,6 +2,7 @@ package com.lithium.mineraloil.selenium.elements;
 
 import lombok.experimental.Delegate;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,17 +16,18 @@ public class CheckboxElement implements Element<CheckboxElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private CheckboxElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private CheckboxElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<CheckboxElement> toList() {
         List<CheckboxElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new CheckboxElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                       .withIframe(getIframeElement())
-                                                                                       .withHover(getHoverElement())
-                                                                                       .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new CheckboxElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                               .withIframe(getIframeElement())
+                                                                                                               .withHover(getHoverElement())
+                                                                                                               .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
@@ -0,0 +1,36 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.openqa.selenium.logging.LogEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+
+// only reports an error once so the tests after the one that hit it aren't aborted as well
+class ConsoleErrorCondition implements AbortCondition {
+    // each session numbers its log entries on its own, so the marker is kept per session's collector
+    private final Map<ConsoleLogCollector, Long> markers = new WeakHashMap<>();
+
+    @Override
+    public String check(Driver driver) {
+        return check(driver.getConsoleLogCollector());
+    }
+
+    synchronized String check(ConsoleLogCollector collector) {
+        Long marker = markers.get(collector);
+        if (marker == null) {
+            // errors logged before this session was first checked aren't held against it
+            markers.put(collector, collector.mark());
+            return null;
+        }
+        List<LogEntry> errors = new ArrayList<>();
+        markers.put(collector, collector.collectSince(marker, Level.SEVERE, errors));
+        return errors.stream()
+                     .filter(entry -> entry.getMessage().contains("Uncaught"))
+                     .map(entry -> "Uncaught javascript error: " + entry.getMessage())
+                     .findFirst()
+                     .orElse(null);
+    }
+}
@@ -0,0 +1,120 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Pulls the browser console log in the background so nothing is lost between reads.
+ *
+ * The driver drains its log buffer on every read, so entries are kept here in a bounded ring buffer instead.
+ * Each entry gets a sequence number: mark() returns the latest one and since(marker) the entries logged after it,
+ * which lets a test look at just what its own steps logged.
+ */
+@Slf4j
+class ConsoleLogCollector {
+    private static final long PULL_INTERVAL_MS = 1000;
+    private static final int CAPACITY = 2000;
+
+    private final WebDriver driver;
+    private final Deque<SequencedEntry> entries = new ArrayDeque<>();
+    private final ScheduledExecutorService executor;
+    private long sequence;
+    private volatile boolean stopped;
+
+    ConsoleLogCollector(WebDriver driver) {
+        this.driver = driver;
+        executor = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("mineraloil-console-log"));
+        executor.scheduleWithFixedDelay(this::pull, PULL_INTERVAL_MS, PULL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads whatever the browser logged since the last pull into the buffer.
+     */
+    synchronized void pull() {
+        if (stopped) return;
+        try {
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                entries.addLast(new SequencedEntry(++sequence, entry));
+                if (entries.size() > CAPACITY) entries.removeFirst();
+            }
+        } catch (UnreachableBrowserException | NoSuchSessionException e) {
+            log.debug("Browser is gone, no longer collecting the console log");
+            stop();
+        } catch (WebDriverException e) {
+            log.debug("Unable to read the browser console log", e);
+        }
+    }
+
+    /**
+     * @return a marker for everything logged up to now, to pass to since()
+     */
+    synchronized long mark() {
+        pull();
+        return sequence;
+    }
+
+    synchronized List<LogEntry> since(long marker, Level minimumLevel) {
+        pull();
+        List<LogEntry> result = new ArrayList<>();
+        for (SequencedEntry entry : entries) {
+            if (entry.sequence > marker && entry.entry.getLevel().intValue() >= minimumLevel.intValue()) {
+                result.add(entry.entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the entries logged after the marker to the result.
+     *
+     * @return the marker to pass next time so each entry is only seen once
+     */
+    synchronized long collectSince(long marker, Level minimumLevel, List<LogEntry> result) {
+        result.addAll(since(marker, minimumLevel));
+        return sequence;
+    }
+
+    /**
+     * @return the buffered entries without reading from the browser
+     */
+    synchronized List<LogEntry> getBuffered() {
+        List<LogEntry> result = new ArrayList<>();
+        entries.forEach(entry -> result.add(entry.entry));
+        return result;
+    }
+
+    // drops everything logged so far, e.g. before handing the session to another test
+    synchronized void clear() {
+        pull();
+        entries.clear();
+    }
+
+    void stop() {
+        stopped = true;
+        executor.shutdownNow();
+    }
+
+    private static class SequencedEntry {
+        private final long sequence;
+        private final LogEntry entry;
+
+        private SequencedEntry(long sequence, LogEntry entry) {
+            this.sequence = sequence;
+            this.entry = entry;
+        }
+    }
+}
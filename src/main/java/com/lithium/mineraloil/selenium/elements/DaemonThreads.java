@@ -0,0 +1,20 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factory for the library's background threads. They're daemon threads so they never keep the
+ * test JVM running once the tests are done.
+ */
+public class DaemonThreads {
+    private DaemonThreads() {
+    }
+
+    public static ThreadFactory named(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
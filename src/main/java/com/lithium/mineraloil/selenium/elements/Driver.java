@@ -1,7 +1,11 @@
 package com.lithium.mineraloil.selenium.elements;
 
 import com.google.common.base.Preconditions;
+import com.lithium.mineraloil.selenium.browsers.DriverStarter;
 import com.lithium.mineraloil.selenium.exceptions.DriverNotFoundException;
+import com.lithium.mineraloil.selenium.exceptions.WaitAbortedException;
+import com.lithium.mineraloil.selenium.metrics.CommandMetrics;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Delegate;
@@ -11,27 +15,69 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.logging.LogEntries;
-import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LogEntry;
 import org.openqa.selenium.remote.UnreachableBrowserException;
 
+import java.io.File;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * The browser sessions of one test and the settings used to drive them.
+ *
+ * Everything a Driver holds is its own, so any number of them can run side by side in one JVM: give each
+ * thread (or task) its own Driver and build its page objects from it. A single Driver isn't meant to be used
+ * by several threads at once, though starting, stopping and switching its sessions is safe to do from another
+ * thread, e.g. to tear a test down.
+ */
 @Slf4j
 public class Driver {
-    private int activeDriverIndex = 0;
+    public static final long ABORT_CHECK_INTERVAL_MS = 1000;
+    private static final String PAGE_SUMMARY_JS =
+            "return document.title + '\\n' + (document.body ? (document.body.innerText || '').substring(0, 500) : '');";
+
+    private volatile int activeDriverIndex = 0;
 
     @Getter @Setter
     private By applicationFrame;
 
     @Setter
     private DriverConfiguration driverConfiguration;
-    private LinkedList<DriverInstance> drivers = new LinkedList<>();
+
+    @Getter @Setter
+    private RetryPolicy retryPolicy = BackoffRetryPolicy.defaults();
+    @Getter(AccessLevel.PACKAGE)
+    private final Retrier retrier = new Retrier(this);
+
+    @Getter @Setter
+    private WaitMode waitMode = WaitMode.POLLING;
+    @Getter @Setter
+    private InputStrategy inputStrategy = InputStrategy.KEYSTROKES;
+    @Getter @Setter
+    private FileTransport fileTransport = FileTransport.GRID;
+    @Getter
+    private FlightRecorder flightRecorder;
+    private final List<AbortCondition> abortConditions = new CopyOnWriteArrayList<>();
+    private volatile long lastAbortCheck;
+    private final List<DriverInstance> drivers = new CopyOnWriteArrayList<>();
+    @Getter @Setter
+    private volatile boolean autoHoverOnInput;
+    @Getter @Setter
+    private DriverPool driverPool;
+    @Getter
+    private volatile CommandMetrics metrics;
 
     @Delegate
     public WebdriverActions webdriver() {
-        return new WebdriverActions(getDriver());
+        return new WebdriverActions(getDriver(), getFrameTracker());
     }
 
     public DriverConfiguration getDriverConfiguration() {
@@ -39,19 +85,79 @@ public class Driver {
         return driverConfiguration;
     }
 
+    // leases a session from the driver pool when one is set, otherwise starts a new one
     public void startDriver() {
-        Preconditions.checkNotNull(driverConfiguration);
-        DriverInstance driverInstance = new DriverInstance(driverConfiguration);
-        drivers.add(driverInstance);
-        resetActiveDriverIndex();
+        DriverInstance driverInstance = createDriverInstance();
+        driverInstance.instrument(metrics);
+        synchronized (this) {
+            drivers.add(driverInstance);
+            resetActiveDriverIndex();
+        }
         log.info("User Agent: " + getUserAgent());
     }
 
+    /**
+     * Starts several drivers at once instead of one after the other, the last one started becomes active.
+     * If any of them can't be started the others are stopped again and the failure is thrown.
+     */
+    public void startDrivers(int count) {
+        Preconditions.checkArgument(count > 0, "count must be positive");
+        if (driverPool == null) Preconditions.checkNotNull(driverConfiguration);
+        List<CompletableFuture<DriverInstance>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(CompletableFuture.supplyAsync(this::createDriverInstance, DriverStarter.getExecutor()));
+        }
+        List<DriverInstance> started = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<DriverInstance> future : futures) {
+            try {
+                started.add(future.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            started.forEach(this::stopDriverInstance);
+            throw failure;
+        }
+        started.forEach(driverInstance -> driverInstance.instrument(metrics));
+        synchronized (this) {
+            drivers.addAll(started);
+            resetActiveDriverIndex();
+        }
+        log.info("User Agent: " + getUserAgent());
+    }
+
+    private DriverInstance createDriverInstance() {
+        if (driverPool != null) {
+            synchronized (this) {
+                if (driverConfiguration == null) driverConfiguration = driverPool.getDriverConfiguration();
+            }
+            return driverPool.lease();
+        }
+        Preconditions.checkNotNull(driverConfiguration);
+        return new DriverInstance(driverConfiguration);
+    }
+
+    private void stopDriverInstance(DriverInstance driverInstance) {
+        if (driverPool != null) {
+            driverPool.release(driverInstance);
+        } else {
+            driverInstance.quit();
+        }
+    }
+
     public void stopLastDriver() {
-        DriverInstance driverInstance = drivers.removeLast();
+        DriverInstance driverInstance;
+        synchronized (this) {
+            if (drivers.isEmpty()) throw new DriverNotFoundException("Unable to locate a started WebDriver instance");
+            driverInstance = drivers.remove(drivers.size() - 1);
+            resetActiveDriverIndex();
+        }
         log.info(String.format("Stopping Last Opened Driver. Drivers Running: %s", getDriverCount()));
-        driverInstance.getDriver().quit();
-        resetActiveDriverIndex();
+        stopDriverInstance(driverInstance);
         if (isDriverStarted()) {
             switchWindow();
         } else {
@@ -59,12 +165,107 @@ public class Driver {
         }
     }
 
+    /**
+     * Starts timing every command, element operation, retry and wait, see {@link CommandMetrics}.
+     * Pass the same metrics to several Drivers to collect them in one place.
+     */
+    public CommandMetrics enableMetrics(CommandMetrics metrics) {
+        this.metrics = metrics;
+        drivers.forEach(driverInstance -> driverInstance.instrument(metrics));
+        return metrics;
+    }
+
+    public CommandMetrics enableMetrics() {
+        return enableMetrics(new CommandMetrics());
+    }
+
+    public void disableMetrics() {
+        enableMetrics(null);
+    }
+
+    // records how long a wait that started at startNanos took
+    void recordWait(String wait, long startNanos) {
+        CommandMetrics current = metrics;
+        if (current != null) current.recordWait(wait, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Starts recording element operations to run in a single script call, see {@link ActionBatch}
+     */
+    public ActionBatch batch() {
+        return new ActionBatch(this);
+    }
+
+    /**
+     * Starts keeping the last actions taken in memory, see {@link FlightRecorder}
+     */
+    public FlightRecorder startFlightRecorder() {
+        flightRecorder = new FlightRecorder(this);
+        return flightRecorder;
+    }
+
+    public void stopFlightRecorder() {
+        flightRecorder = null;
+    }
+
+    void recordAction(String action, By by, WebElement element, String detail) {
+        if (flightRecorder != null) flightRecorder.record(action, by, element, detail);
+    }
+
+    // for actions run under a retry: only the first attempt records a frame, retries of the same action don't
+    Consumer<WebElement> recordActionOnce(String action, By by, String detail) {
+        if (flightRecorder == null) return element -> {};
+        AtomicBoolean recorded = new AtomicBoolean();
+        return element -> {
+            if (recorded.compareAndSet(false, true)) recordAction(action, by, element, detail);
+        };
+    }
+
+    /**
+     * Ends element waits and retries with a WaitAbortedException as soon as the condition fires.
+     * Conditions are checked at most every ABORT_CHECK_INTERVAL_MS so they can make a call to the browser.
+     */
+    public void addAbortCondition(AbortCondition abortCondition) {
+        abortConditions.add(abortCondition);
+    }
+
+    public void removeAbortCondition(AbortCondition abortCondition) {
+        abortConditions.remove(abortCondition);
+    }
+
+    void checkAbortConditions() {
+        if (abortConditions.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        if (now - lastAbortCheck < ABORT_CHECK_INTERVAL_MS) return;
+        lastAbortCheck = now;
+        for (AbortCondition abortCondition : abortConditions) {
+            String reason;
+            try {
+                reason = abortCondition.check(this);
+            } catch (WebDriverException e) {
+                log.debug("Unable to check abort condition", e);
+                continue;
+            }
+            if (reason != null) throw new WaitAbortedException(reason);
+        }
+    }
+
+    // the page title and the start of its text, or null if the page can't be read
+    String getPageSummary() {
+        try {
+            return (String) executeScript(PAGE_SUMMARY_JS);
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+
     public void autoHoverOnInput() {
-        ElementImpl.setAutoHoverOnInput(true);
+        autoHoverOnInput = true;
     }
 
     public void get(String url) {
         try {
+            getFrameTracker().invalidate();
             getDriver().get(url);
         } catch (UnreachableBrowserException e) {
             // this is a workaround for losing the connection or failing to start driver
@@ -76,13 +277,33 @@ public class Driver {
     }
 
     private WebDriver getDriver() {
-        if (!isDriverStarted()) throw new DriverNotFoundException("Unable to locate a started WebDriver instance");
-        return drivers.get(activeDriverIndex).getDriver();
+        return getDriverInstance().getDriver();
+    }
+
+    DriverInstance getDriverInstance() {
+        try {
+            return drivers.get(activeDriverIndex);
+        } catch (IndexOutOfBoundsException e) {
+            // no drivers, or the active one was stopped by another thread
+            throw new DriverNotFoundException("Unable to locate a started WebDriver instance");
+        }
+    }
+
+    FrameTracker getFrameTracker() {
+        return getDriverInstance().getFrameTracker();
+    }
+
+    // the path a file input should be given for a local file: remote sessions get a copy uploaded once per session
+    String getUploadPath(File file) {
+        DriverInstance driverInstance = getDriverInstance();
+        if (!driverInstance.isRemote()) return file.getPath();
+        return driverInstance.getUploadCache().getRemotePath(driverInstance.getDriver(), fileTransport, file);
     }
 
     // switches to the last opened window
     public void switchWindow() {
         List<String> windowHandles = new ArrayList<>(getWindowHandles());
+        getFrameTracker().invalidate();
         getDriver().switchTo().window(windowHandles.get(windowHandles.size() - 1));
     }
 
@@ -119,10 +340,32 @@ public class Driver {
         return getDriverCount() > 0;
     }
 
+    ConsoleLogCollector getConsoleLogCollector() {
+        return getDriverInstance().getConsoleLog();
+    }
+
+    /**
+     * @return the browser console log collected for this session, up to the last couple thousand entries
+     */
     public LogEntries getConsoleLog() {
         log.info("Console Log output: ");
-        executeScript("console.log('Logging Errors');");
-        return getDriver().manage().logs().get(LogType.BROWSER);
+        return new LogEntries(getDriverInstance().getConsoleLog().since(0, Level.ALL));
+    }
+
+    /**
+     * @return a marker for the console log entries logged so far, to pass to getConsoleLogSince()
+     */
+    public long markConsoleLog() {
+        return getDriverInstance().getConsoleLog().mark();
+    }
+
+    public List<LogEntry> getConsoleLogSince(long marker, Level minimumLevel) {
+        return getDriverInstance().getConsoleLog().since(marker, minimumLevel);
+    }
+
+    // what's been collected so far without reading from the browser
+    List<LogEntry> getBufferedConsoleLog() {
+        return getDriverInstance().getConsoleLog().getBuffered();
     }
 
     public boolean hasApplicationFrame() {
@@ -130,11 +373,43 @@ public class Driver {
     }
 
     public void switchToApplicationFrame() {
-        if (applicationFrameVisible()) {
-            switchTo().frame(findElement(applicationFrame));
+        List<Object> framePath = getDocumentFramePath();
+        if (getFrameTracker().isAt(framePath)) return;
+
+        switchToDefaultContent();
+        List<WebElement> frames = findElements(applicationFrame);
+        if (!frames.isEmpty()) {
+            switchToFrame(frames.get(0), framePath);
         }
     }
 
+    // the frame path of elements that aren't within an iframe
+    List<Object> getDocumentFramePath() {
+        return hasApplicationFrame() ? Collections.singletonList(applicationFrame) : Collections.emptyList();
+    }
+
+    // switches to the frame of the elements with this frame path
+    void switchToFramePath(List<Object> framePath) {
+        if (!framePath.equals(getDocumentFramePath())) {
+            ((BaseElement) framePath.get(framePath.size() - 1)).switchFocusToIFrame();
+        } else if (hasApplicationFrame()) {
+            switchToApplicationFrame();
+        } else {
+            switchToDefaultContent();
+        }
+    }
+
+    void switchToDefaultContent() {
+        if (getFrameTracker().isAt(Collections.emptyList())) return;
+        getDriver().switchTo().defaultContent();
+        getFrameTracker().set(Collections.emptyList());
+    }
+
+    void switchToFrame(WebElement frame, List<Object> framePath) {
+        getDriver().switchTo().frame(frame);
+        getFrameTracker().set(framePath);
+    }
+
     public boolean applicationFrameVisible() {
         return findElements(applicationFrame).size() > 0;
     }
@@ -155,6 +430,22 @@ public class Driver {
         return getDriver().findElement(by);
     }
 
+    /**
+     * Reads the state of every element matching the locator in a single script call
+     */
+    public List<ElementSnapshot> snapshot(By by, String... attributes) {
+        return createBaseElement(by).snapshotAll(attributes);
+    }
+
+    /**
+     * Reads the state of the given elements in a single script call. Elements created by toList()
+     * are already located so this costs one round trip for the whole list.
+     */
+    public List<ElementSnapshot> snapshot(List<? extends Element> elements, String... attributes) {
+        List<WebElement> webElements = elements.stream().map(Element::locateElement).collect(Collectors.toList());
+        return ElementSnapshot.capture(this, webElements, attributes);
+    }
+
     public BaseElement createBaseElement(By by) {
         return new BaseElement(this, by);
     }
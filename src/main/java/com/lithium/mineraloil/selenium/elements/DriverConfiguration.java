@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.remote.http.HttpClient;
 
 @Builder
 @Data
@@ -18,5 +19,7 @@ public class DriverConfiguration {
     private ChromeOptions chromeOptions;
     private String downloadDirectory;
     private String remoteWebdriverAddress;
+    // sends remote commands through this instead of a new client per session, e.g. a PooledHttpClientFactory
+    private HttpClient.Factory httpClientFactory;
 
 }
\ No newline at end of file
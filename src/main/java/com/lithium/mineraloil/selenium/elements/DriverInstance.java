@@ -3,21 +3,55 @@ package com.lithium.mineraloil.selenium.elements;
 import com.lithium.mineraloil.selenium.browsers.ChromeBrowser;
 import com.lithium.mineraloil.selenium.browsers.RemoteChromeBrowser;
 import com.lithium.mineraloil.selenium.exceptions.DriverNotFoundException;
+import com.lithium.mineraloil.selenium.metrics.CommandMetrics;
+import com.lithium.mineraloil.selenium.metrics.InstrumentedWebDriver;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
 
 @Data
 class DriverInstance {
     private DriverConfiguration driverConfiguration;
     private WebDriver driver;
+    private final FrameTracker frameTracker = new FrameTracker();
+    private final RemoteUploadCache uploadCache = new RemoteUploadCache();
+    private ConsoleLogCollector consoleLog;
+    // the driver decorated to time its commands while metrics are on
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private WebDriver instrumentedDriver;
 
     public DriverInstance(DriverConfiguration driverConfiguration) {
         this.driverConfiguration = driverConfiguration;
         startWebDriver(driverConfiguration);
+        consoleLog = new ConsoleLogCollector(driver);
     }
     
     public DriverInstance(WebDriver driver) {
         this.driver=driver;
+        consoleLog = new ConsoleLogCollector(driver);
+    }
+
+    public WebDriver getDriver() {
+        return instrumentedDriver != null ? instrumentedDriver : driver;
+    }
+
+    // times the driver's commands into the metrics, or stops timing them when null
+    void instrument(CommandMetrics metrics) {
+        instrumentedDriver = metrics == null ? null : InstrumentedWebDriver.wrap(driver, metrics);
+    }
+
+    void quit() {
+        consoleLog.stop();
+        driver.quit();
+    }
+
+    // whether the browser runs on another machine, in which case files have to be uploaded to it
+    boolean isRemote() {
+        if (driverConfiguration != null) return driverConfiguration.getBrowserType().name().startsWith("REMOTE_");
+        return driver.getClass() == RemoteWebDriver.class;
     }
 
     private void startWebDriver(DriverConfiguration driverConfiguration) {
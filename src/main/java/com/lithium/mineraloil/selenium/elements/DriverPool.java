@@ -0,0 +1,258 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.google.common.base.Preconditions;
+import com.lithium.mineraloil.selenium.exceptions.DriverNotFoundException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps browser sessions started ahead of time so a test doesn't have to wait for a cold browser start.
+ *
+ * Give the pool to a {@link Driver} with setDriverPool() and startDriver()/stop() lease and release
+ * sessions instead of starting and quitting them. A released session is scrubbed (extra windows closed,
+ * cookies and storage cleared, left on about:blank) and put back for the next test; a session that fails its
+ * health check or can't be scrubbed is quit and replaced. Sessions idle for longer than the idle timeout are
+ * quit as long as that leaves the warm size, and no more than the max size are ever open at once.
+ */
+@Slf4j
+public class DriverPool {
+    private static final long LEASE_TIMEOUT_S = 180;
+    private static final long REAP_INTERVAL_S = 30;
+    private static final String CLEAR_STORAGE_JS =
+            "try { window.localStorage.clear(); } catch (e) {}" +
+            "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    @Getter
+    private final DriverConfiguration driverConfiguration;
+    private final Supplier<DriverInstance> sessionFactory;
+    private final int warmSize;
+    private final int maxSize;
+    private volatile long maxIdleMs = TimeUnit.MINUTES.toMillis(10);
+
+    private final LinkedBlockingDeque<IdleSession> idle = new LinkedBlockingDeque<>();
+    private final ExecutorService starter;
+    private final ScheduledExecutorService reaper;
+    // sessions that are idle, leased or starting
+    private int size;
+    private int starting;
+    private volatile boolean closed;
+
+    /**
+     * @param warmSize how many sessions to keep started and waiting
+     * @param maxSize  the most sessions to have open at once, leased or not
+     */
+    public DriverPool(DriverConfiguration driverConfiguration, int warmSize, int maxSize) {
+        this(driverConfiguration, () -> new DriverInstance(driverConfiguration), warmSize, maxSize);
+    }
+
+    DriverPool(DriverConfiguration driverConfiguration, Supplier<DriverInstance> sessionFactory, int warmSize, int maxSize) {
+        Preconditions.checkArgument(warmSize >= 0 && maxSize > 0 && warmSize <= maxSize, "warmSize must be between 0 and maxSize");
+        this.driverConfiguration = driverConfiguration;
+        this.sessionFactory = sessionFactory;
+        this.warmSize = warmSize;
+        this.maxSize = maxSize;
+        starter = Executors.newFixedThreadPool(Math.max(1, Math.min(warmSize, 4)), DaemonThreads.named("mineraloil-pool-starter"));
+        reaper = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("mineraloil-pool-reaper"));
+        reaper.scheduleWithFixedDelay(this::reapIdleSessions, REAP_INTERVAL_S, REAP_INTERVAL_S, TimeUnit.SECONDS);
+        replenish();
+    }
+
+    public void setMaxIdle(long duration, TimeUnit unit) {
+        maxIdleMs = unit.toMillis(duration);
+    }
+
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Hands out a healthy idle session, starts one on the calling thread if none are idle and the pool
+     * isn't full, or waits for one to be released or started.
+     */
+    DriverInstance lease() {
+        Preconditions.checkState(!closed, "Driver pool is closed");
+        long expireTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(LEASE_TIMEOUT_S);
+        while (System.currentTimeMillis() < expireTime) {
+            IdleSession session = idle.pollFirst();
+            if (session == null) {
+                if (reserve()) {
+                    try {
+                        return startSession();
+                    } finally {
+                        replenish();
+                    }
+                }
+                try {
+                    session = idle.pollFirst(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DriverNotFoundException("Interrupted waiting for a pooled driver");
+                }
+                if (session == null) continue;
+            }
+            if (isHealthy(session.driverInstance)) {
+                replenish();
+                return session.driverInstance;
+            }
+            discard(session.driverInstance);
+        }
+        throw new DriverNotFoundException(String.format("No pooled driver became available within %s seconds", LEASE_TIMEOUT_S));
+    }
+
+    /**
+     * Scrubs the session and puts it back in the pool, or quits it if it can't be cleaned up.
+     */
+    void release(DriverInstance driverInstance) {
+        if (closed || !scrub(driverInstance)) {
+            discard(driverInstance);
+            return;
+        }
+        addIdle(new IdleSession(driverInstance), true);
+    }
+
+    private void addIdle(IdleSession session, boolean first) {
+        if (first) {
+            idle.addFirst(session);
+        } else {
+            idle.addLast(session);
+        }
+        // close() may have drained the idle sessions while this one was starting or being scrubbed
+        if (closed && idle.remove(session)) discard(session.driverInstance);
+    }
+
+    public void close() {
+        closed = true;
+        starter.shutdownNow();
+        reaper.shutdownNow();
+        List<IdleSession> sessions = new ArrayList<>();
+        idle.drainTo(sessions);
+        sessions.forEach(session -> discard(session.driverInstance));
+    }
+
+    private boolean scrub(DriverInstance driverInstance) {
+        WebDriver driver = driverInstance.getDriver();
+        try {
+            List<String> windowHandles = new ArrayList<>(driver.getWindowHandles());
+            for (String windowHandle : windowHandles.subList(1, windowHandles.size())) {
+                driver.switchTo().window(windowHandle).close();
+            }
+            driver.switchTo().window(windowHandles.get(0));
+            driver.switchTo().defaultContent();
+            // storage and cookies can only be cleared for the page that's loaded
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_JS);
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            driverInstance.getFrameTracker().invalidate();
+            driverInstance.getConsoleLog().clear();
+            return true;
+        } catch (WebDriverException e) {
+            log.info("Unable to scrub pooled driver, replacing it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isHealthy(DriverInstance driverInstance) {
+        try {
+            driverInstance.getDriver().getWindowHandles();
+            return true;
+        } catch (WebDriverException e) {
+            log.info("Pooled driver failed its health check, replacing it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(DriverInstance driverInstance) {
+        synchronized (this) {
+            size--;
+        }
+        try {
+            driverInstance.quit();
+        } catch (WebDriverException e) {
+            log.debug("Unable to quit pooled driver", e);
+        }
+        replenish();
+    }
+
+    // starts sessions in the background until there are warmSize idle or starting
+    private void replenish() {
+        if (closed) return;
+        synchronized (this) {
+            while (idle.size() + starting < warmSize && size < maxSize) {
+                size++;
+                starting++;
+                starter.execute(() -> {
+                    try {
+                        addIdle(new IdleSession(startSession()), false);
+                    } catch (RuntimeException e) {
+                        log.error("Unable to start pooled driver: " + e.toString());
+                    } finally {
+                        synchronized (this) {
+                            starting--;
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private synchronized boolean reserve() {
+        if (size >= maxSize) return false;
+        size++;
+        return true;
+    }
+
+    private DriverInstance startSession() {
+        try {
+            return sessionFactory.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                size--;
+            }
+            throw e;
+        }
+    }
+
+    private void reapIdleSessions() {
+        long oldest = System.currentTimeMillis() - maxIdleMs;
+        List<DriverInstance> expired = new ArrayList<>();
+        synchronized (this) {
+            // the most recently used sessions are at the front
+            Iterator<IdleSession> sessions = idle.descendingIterator();
+            while (sessions.hasNext() && idle.size() > warmSize) {
+                IdleSession session = sessions.next();
+                if (session.idleSince >= oldest) break;
+                if (idle.remove(session)) expired.add(session.driverInstance);
+            }
+        }
+        expired.forEach(driverInstance -> {
+            log.info("Quitting idle pooled driver");
+            discard(driverInstance);
+        });
+    }
+
+    private static class IdleSession {
+        private final DriverInstance driverInstance;
+        private final long idleSince = System.currentTimeMillis();
+
+        private IdleSession(DriverInstance driverInstance) {
+            this.driverInstance = driverInstance;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebElement;
 
+import java.util.List;
+
 public interface ElementActions {
 
     WebElement locateElement();
@@ -54,4 +56,8 @@ public interface ElementActions {
 
     void autoHover();
 
+    ElementSnapshot snapshot(String... attributes);
+
+    List<ElementSnapshot> snapshotAll(String... attributes);
+
 }
@@ -1,8 +1,27 @@
 package com.lithium.mineraloil.selenium.elements;
 
+import java.util.List;
+
 public interface ElementContext<T extends Element> {
     T withIframe(Element iframeElement);
     T withHover(Element hoverElement);
     T withParent(Element parentElement);
     T withAutoScrollIntoView();
+    T withHandleCache();
+
+    Element getIframeElement();
+
+    // the iframes that have to be entered from the top level document to reach this element
+    List<Object> getFramePath();
+
+    Element getHoverElement();
+
+    boolean isAutoScrollIntoView();
+
+    boolean isAutoScrollToEnd();
+
+    boolean isHandleCacheEnabled();
+
+    // the position of this element in the list it was created from by toList(), -1 otherwise
+    int getIndex();
 }
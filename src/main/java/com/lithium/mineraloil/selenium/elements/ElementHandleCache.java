@@ -0,0 +1,75 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Holds on to the last WebElement located for an element so repeated interactions
+ * don't have to walk the locator chain again.
+ *
+ * A MutationObserver is injected into the page which bumps an epoch counter any time the DOM changes.
+ * The cached handle is only reused while that epoch is unchanged. The epoch carries a random page id
+ * so navigating (or switching to another window) also invalidates the handle.
+ */
+@Slf4j
+class ElementHandleCache {
+    private static final String INSTALL_EPOCH_JS =
+            "if (!window.__mineraloilEpoch) {" +
+            "  var epoch = {id: Math.random().toString(36).slice(2), count: 0};" +
+            "  new MutationObserver(function() { epoch.count++; })" +
+            "      .observe(document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            "  window.__mineraloilEpoch = epoch;" +
+            "}" +
+            "return window.__mineraloilEpoch.id + ':' + window.__mineraloilEpoch.count;";
+    private static final String READ_EPOCH_JS =
+            "var epoch = window.__mineraloilEpoch; return epoch ? epoch.id + ':' + epoch.count : null;";
+
+    private final Driver driver;
+    private WebElement element;
+    private String epoch;
+
+    ElementHandleCache(Driver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * @return the cached handle if the DOM hasn't changed since it was located, otherwise null
+     */
+    WebElement get() {
+        if (element == null) return null;
+        try {
+            if (epoch != null && epoch.equals(driver.executeScript(READ_EPOCH_JS))) {
+                return element;
+            }
+        } catch (WebDriverException e) {
+            log.debug("Unable to read DOM epoch, relocating element", e);
+        }
+        invalidate();
+        return null;
+    }
+
+    /**
+     * Installs the observer if needed and returns the current epoch. This should be read
+     * before locating the element so any mutation racing the lookup invalidates the handle.
+     */
+    String readEpoch() {
+        try {
+            return (String) driver.executeScript(INSTALL_EPOCH_JS);
+        } catch (WebDriverException e) {
+            log.debug("Unable to install DOM epoch observer", e);
+            return null;
+        }
+    }
+
+    void put(WebElement element, String epoch) {
+        if (epoch == null) return;
+        this.element = element;
+        this.epoch = epoch;
+    }
+
+    void invalidate() {
+        element = null;
+        epoch = null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.lithium.mineraloil.selenium.elements;
 
-import com.google.common.base.Throwables;
+import com.lithium.mineraloil.selenium.exceptions.WaitAbortedException;
+import com.lithium.mineraloil.selenium.metrics.CommandMetrics;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.awaitility.core.ConditionTimeoutException;
@@ -14,10 +15,13 @@ import org.openqa.selenium.interactions.Actions;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import static com.lithium.mineraloil.selenium.elements.Waiter.abortable;
 import static com.lithium.mineraloil.selenium.elements.Waiter.DISPLAY_WAIT_S;
 import static com.lithium.mineraloil.selenium.elements.Waiter.INTERACT_WAIT_S;
 import static com.lithium.mineraloil.selenium.elements.Waiter.await;
@@ -27,11 +31,14 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Slf4j
 class ElementImpl<T extends Element> implements Element<T> {
     protected Driver driver;
-    private int LOCATE_RETRIES = 2;
     protected Element referenceElement;
-    private int index = -1;
+    @Getter private int index = -1;
+    private WebElement boundElement;
+    private ElementHandleCache handleCache;
+    private LocatorChain locatorChain;
+    private By byWithinParent;
+    private boolean locatorChainCompiled;
 
-    @Getter private static boolean autoHoverOnInput;
     @Getter protected boolean autoScrollIntoView = false;
     @Getter protected boolean autoScrollToEnd = false;
     @Getter protected Element iframeElement;
@@ -45,11 +52,12 @@ class ElementImpl<T extends Element> implements Element<T> {
         this.by = by;
     }
 
-    public ElementImpl(Driver driver, Element<T> referenceElement, By by, int index) {
+    public ElementImpl(Driver driver, Element<T> referenceElement, By by, int index, WebElement boundElement) {
         this.driver = driver;
         this.referenceElement = referenceElement;
         this.by = by;
         this.index = index;
+        this.boundElement = boundElement;
     }
 
     public ElementImpl(Driver driver, Element<T> referenceElement, Element parentElement, By by) {
@@ -63,31 +71,23 @@ class ElementImpl<T extends Element> implements Element<T> {
     public WebElement locateElement() {
         // the class was initialized with an index so use it
         if (index >= 0) {
-            List<WebElement> elements = locateElements();
-            if (index < elements.size()) {
-                return locateElements().get(index);
-            } else {
-                throw new NoSuchElementException(String.format("Unable to locate element using %s and %s", by, index));
-            }
+            return locateIndexedElement();
         }
 
         WebElement element;
-        if (isWithinIFrame()) {
-            ((BaseElement) iframeElement).switchFocusToIFrame();
-        } else {
-            switchFocusFromIFrame();
-        }
-
-        if (hoverElement != null && hoverElement.isDisplayed()) hoverElement.hover();
-
-        if (parentElement != null) {
-            By parentBy = by;
-            if (by instanceof ByXPath) {
-                parentBy = getByForParentElement(by);
+        switchToElementContext();
+
+        element = handleCache != null ? handleCache.get() : null;
+        if (element == null) {
+            String epoch = handleCache != null ? handleCache.readEpoch() : null;
+            if (parentElement != null && isLocatedByChain()) {
+                element = getLocatorChain().findElement(driver);
+            } else if (parentElement != null) {
+                element = parentElement.locateElement().findElement(getByWithinParent());
+            } else {
+                element = driver.findElement(by);
             }
-            element = parentElement.locateElement().findElement(parentBy);
-        } else {
-            element = driver.findElement(by);
+            if (handleCache != null) handleCache.put(element, epoch);
         }
 
         if (autoScrollIntoView) {
@@ -101,24 +101,34 @@ class ElementImpl<T extends Element> implements Element<T> {
         return element;
     }
 
-    public List<WebElement> locateElements() {
-        List<WebElement> elements;
-        if (isWithinIFrame()) {
-            ((BaseElement) iframeElement).switchFocusToIFrame();
+    // elements created by toList() are bound to the handle from the initial lookup and
+    // only fall back to locating the whole list again once that handle has gone stale
+    private WebElement locateIndexedElement() {
+        if (boundElement != null) {
+            switchToElementContext();
+            if (autoScrollIntoView) {
+                scrollElement(boundElement);
+            }
+            return boundElement;
+        }
+
+        List<WebElement> elements = locateElements();
+        if (index < elements.size()) {
+            boundElement = elements.get(index);
+            return boundElement;
         } else {
-            switchFocusFromIFrame();
+            throw new NoSuchElementException(String.format("Unable to locate element using %s and %s", by, index));
         }
+    }
 
-        if (hoverElement != null && hoverElement.isDisplayed()) hoverElement.hover();
+    public List<WebElement> locateElements() {
+        List<WebElement> elements;
+        switchToElementContext();
 
-        if (parentElement != null) {
-            By parentBy;
-            if (by instanceof ByXPath) {
-                parentBy = getByForParentElement(by);
-            } else {
-                parentBy = by;
-            }
-            elements = getListWebElements(() -> parentElement.locateElement().findElements(parentBy));
+        if (parentElement != null && isLocatedByChain()) {
+            elements = getListWebElements(() -> getLocatorChain().findElements(driver));
+        } else if (parentElement != null) {
+            elements = getListWebElements(() -> parentElement.locateElement().findElements(getByWithinParent()));
         } else {
             elements = getListWebElements(() -> driver.findElements(by));
         }
@@ -130,48 +140,91 @@ class ElementImpl<T extends Element> implements Element<T> {
         return elements;
     }
 
+    // compiled lazily since the element context is configured after construction
+    private LocatorChain getLocatorChain() {
+        if (!locatorChainCompiled) {
+            locatorChain = LocatorChain.compile(this);
+            locatorChainCompiled = true;
+        }
+        return locatorChain;
+    }
+
+    private boolean isLocatedByChain() {
+        return getLocatorChain() != null && getLocatorChain().isComposed();
+    }
+
+    private By getByWithinParent() {
+        if (byWithinParent == null) {
+            byWithinParent = getByForParentElement(by);
+        }
+        return byWithinParent;
+    }
+
+    private void resetLocatorChain() {
+        locatorChainCompiled = false;
+        locatorChain = null;
+    }
+
+    private void switchToElementContext() {
+        driver.switchToFramePath(getFramePath());
+
+        if (hoverElement != null && hoverElement.isDisplayed()) hoverElement.hover();
+    }
+
     private <E> E callSelenium(Callable<E> callable) {
-        // default exception that gets thrown on a timeout
-        WebDriverException exception = new WebDriverException("Unable to locate element: " + getBy());
-
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + SECONDS.toMillis(INTERACT_WAIT_S);
-        while (Instant.now().toEpochMilli() < expireTime && retries < LOCATE_RETRIES) {
-            try {
-                return callable.call();
-            } catch (WebDriverException e) {
-                exception = e; //update the exception message to reflect what selenium is reporting
-                retries++;
-            } catch (Exception e) {
-                Throwables.propagate(e);
-            }
+        try {
+            return retry(SECONDS.toMillis(INTERACT_WAIT_S), callable);
+        } catch (WebDriverException e) {
+            // update the exception message to reflect what selenium is reporting
+            throw new NoSuchElementException(e.getMessage());
+        }
+    }
+
+    // runs the callable under the driver's retry policy, locating from scratch after each failure
+    <E> E retry(long budgetMillis, Callable<E> callable) {
+        CommandMetrics metrics = driver.getMetrics();
+        if (metrics == null) return driver.getRetrier().call(budgetMillis, callable, this::invalidateLocation);
+
+        String locator = String.valueOf(getBy());
+        long start = System.nanoTime();
+        try {
+            return driver.getRetrier().call(budgetMillis, callable, () -> {
+                metrics.recordRetry(locator);
+                invalidateLocation();
+            });
+        } finally {
+            metrics.recordLocator(locator, System.nanoTime() - start);
         }
-        throw new NoSuchElementException(exception.getMessage());
     }
 
     // this is used as a best effort to make sure lists have an item in them.
     // If nothing found by the timeout, return an empty list
     private List<WebElement> getListWebElements(Callable<List<WebElement>> callable) {
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + SECONDS.toMillis(INTERACT_WAIT_S);
-        while (Instant.now().toEpochMilli() < expireTime && retries < LOCATE_RETRIES) {
-            try {
+        CommandMetrics metrics = driver.getMetrics();
+        String locator = String.valueOf(getBy());
+        long start = System.nanoTime();
+        try {
+            return driver.getRetrier().callUntilTimeout(SECONDS.toMillis(INTERACT_WAIT_S), () -> {
                 List<WebElement> elements = callable.call();
-                if (elements.size() == 0) continue;
+                if (elements.isEmpty()) throw new NoSuchElementException("Unable to locate elements: " + getBy());
                 return elements;
-            } catch (WebDriverException e) {
-                retries++;
-            } catch (Exception e) {
-                Throwables.propagate(e);
-            }
+            }, () -> {
+                if (metrics != null) metrics.recordRetry(locator);
+                invalidateLocation();
+            });
+        } catch (WebDriverException e) {
+            // no elements found so return an empty list
+            return new ArrayList<>();
+        } finally {
+            if (metrics != null) metrics.recordLocator(locator, System.nanoTime() - start);
         }
-
-        // no elements found so return an empty list
-        return new ArrayList<>();
     }
 
-    public static void setAutoHoverOnInput(Boolean value) {
-        autoHoverOnInput = value;
+    // called when selenium reports a failure so the next attempt locates from scratch
+    void invalidateLocation() {
+        boundElement = null;
+        if (handleCache != null) handleCache.invalidate();
+        driver.getFrameTracker().invalidate();
     }
 
     @Override
@@ -180,8 +233,11 @@ class ElementImpl<T extends Element> implements Element<T> {
 
         autoHover();
 
+        Consumer<WebElement> recordAction = driver.recordActionOnce("click", getBy(), null);
         callSelenium(() -> {
-            locateElement().click();
+            WebElement element = locateElement();
+            recordAction.accept(element);
+            element.click();
             return null;
         });
     }
@@ -243,46 +299,31 @@ class ElementImpl<T extends Element> implements Element<T> {
 
     @Override
     public boolean isInDOM() {
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + MILLISECONDS.toMillis(Waiter.STALE_ELEMENT_WAIT_MS);
-        while (Instant.now().toEpochMilli() < expireTime && retries < LOCATE_RETRIES) {
-            try {
-                return locateElement() != null;
-            } catch (WebDriverException e) {
-                retries++;
-            }
+        try {
+            return retry(Waiter.STALE_ELEMENT_WAIT_MS, () -> locateElement() != null);
+        } catch (WebDriverException e) {
+            return false;
         }
-        return false;
     }
 
     @Override
     public boolean isDisplayed() {
-        int retries = 0;
         int waitTime = Waiter.STALE_ELEMENT_WAIT_MS;
         if (hoverElement != null) waitTime = Waiter.STALE_ELEMENT_WAIT_MS * 2;
-        long expireTime = Instant.now().toEpochMilli() + MILLISECONDS.toMillis(waitTime);
-        while (Instant.now().toEpochMilli() < expireTime && retries < LOCATE_RETRIES) {
-            try {
-                return locateElement().isDisplayed();
-            } catch (WebDriverException e) {
-                retries++;
-            }
+        try {
+            return retry(waitTime, () -> locateElement().isDisplayed());
+        } catch (WebDriverException e) {
+            return false;
         }
-        return false;
     }
 
     @Override
     public boolean isEnabled() {
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + MILLISECONDS.toMillis(Waiter.STALE_ELEMENT_WAIT_MS);
-        while (Instant.now().toEpochMilli() < expireTime && retries < LOCATE_RETRIES) {
-            try {
-                return locateElement().isEnabled();
-            } catch (WebDriverException e) {
-                retries++;
-            }
+        try {
+            return retry(Waiter.STALE_ELEMENT_WAIT_MS, () -> locateElement().isEnabled());
+        } catch (WebDriverException e) {
+            return false;
         }
-        return false;
     }
 
     public boolean isDisabled() {
@@ -292,18 +333,22 @@ class ElementImpl<T extends Element> implements Element<T> {
     @Override
     public void hover() {
         waitUntilDisplayed();
+        long start = System.nanoTime();
         try {
-            await().until(() -> {
+            await().until(abortable(driver, () -> {
                 try {
                     final Actions hoverHandler = driver.getActions();
                     hoverHandler.moveToElement(locateElement()).perform();
                     return true;
                 } catch (WebDriverException e) {
+                    invalidateLocation();
                     return false;
                 }
-            });
+            }));
         } catch (ConditionTimeoutException e) {
             throw new NoSuchElementException("Unable to hover over element: " + getBy().toString());
+        } finally {
+            driver.recordWait("hover", start);
         }
     }
 
@@ -313,15 +358,18 @@ class ElementImpl<T extends Element> implements Element<T> {
 
         autoHover();
 
+        Consumer<WebElement> recordAction = driver.recordActionOnce("sendKeys", getBy(), null);
         callSelenium(() -> {
-            locateElement().sendKeys(keys);
+            WebElement element = locateElement();
+            recordAction.accept(element);
+            element.sendKeys(keys);
             return null;
         });
     }
 
     @Override
     public void autoHover() {
-        if (autoHoverOnInput && hoverElement == null) hover();
+        if (driver.isAutoHoverOnInput() && hoverElement == null) hover();
     }
 
     @Override
@@ -335,7 +383,7 @@ class ElementImpl<T extends Element> implements Element<T> {
     public boolean isFocused() {
         waitUntilDisplayed();
 
-        return callSelenium(() -> driver.switchTo().activeElement().equals(locateElement()));
+        return callSelenium(() -> driver.getActiveElement().equals(locateElement()));
     }
 
     @Override
@@ -356,6 +404,42 @@ class ElementImpl<T extends Element> implements Element<T> {
         });
     }
 
+    @Override
+    public ElementSnapshot snapshot(String... attributes) {
+        return callSelenium(() -> {
+            List<ElementSnapshot> snapshots;
+            if (canLocateInScript()) {
+                switchToElementContext();
+                snapshots = ElementSnapshot.capture(driver, getLocatorChain(), attributes);
+            } else {
+                snapshots = ElementSnapshot.capture(driver, Collections.singletonList(locateElement()), attributes);
+            }
+            if (snapshots.isEmpty()) throw new NoSuchElementException("Unable to locate element: " + getBy());
+            return snapshots.get(0);
+        });
+    }
+
+    @Override
+    public List<ElementSnapshot> snapshotAll(String... attributes) {
+        return callSelenium(() -> {
+            if (canLocateInScript()) {
+                switchToElementContext();
+                return ElementSnapshot.capture(driver, getLocatorChain(), attributes);
+            }
+            return ElementSnapshot.capture(driver, locateElements(), attributes);
+        });
+    }
+
+    // elements located by the client (indexed, cached, hovering, scrolling) can't be located by a script
+    private boolean canLocateInScript() {
+        return index < 0
+                && handleCache == null
+                && hoverElement == null
+                && !autoScrollIntoView
+                && !autoScrollToEnd
+                && getLocatorChain() != null;
+    }
+
     public void flash() {
         waitUntilDisplayed();
         final WebElement element = locateElement();
@@ -369,37 +453,45 @@ class ElementImpl<T extends Element> implements Element<T> {
     }
 
     public void switchFocusToIFrame() {
-        driver.switchTo().frame(locateElement());
+        List<Object> framePath = new ArrayList<>(getFramePath());
+        framePath.add(referenceElement);
+        if (driver.getFrameTracker().isAt(framePath)) return;
+        driver.switchToFrame(locateElement(), framePath);
     }
 
     public void switchFocusFromIFrame() {
-        try {
-            if (driver.hasApplicationFrame()) {
-                driver.switchToApplicationFrame();
-            } else {
-                driver.switchTo().parentFrame();
-            }
-        } catch (Exception e) {
-            getDefaultFrame();
-        }
-    }
-
-    private void getDefaultFrame() {
         if (driver.hasApplicationFrame()) {
             driver.switchToApplicationFrame();
         } else {
-            driver.switchTo().defaultContent();
+            driver.switchToDefaultContent();
+        }
+    }
+
+    // the iframes that have to be entered from the top level document to reach this element.
+    // An element without an iframe of its own lives in the same frame as its parent.
+    public List<Object> getFramePath() {
+        if (!isWithinIFrame()) {
+            return parentElement == null ? driver.getDocumentFramePath() : parentElement.getFramePath();
         }
+
+        List<Object> framePath = new ArrayList<>(((BaseElement) iframeElement).getFramePath());
+        framePath.add(iframeElement);
+        return framePath;
     }
 
     public void fireEvent(String eventName) {
-        await().atMost(DISPLAY_WAIT_S, SECONDS)
-               .pollInterval(Waiter.STALE_ELEMENT_WAIT_MS, MILLISECONDS)
-               .ignoreExceptions()
-               .until(() -> {
-                   dispatchJSEvent(locateElement(), eventName, true, true);
-                   return true;
-               });
+        long start = System.nanoTime();
+        try {
+            await().atMost(DISPLAY_WAIT_S, SECONDS)
+                   .pollInterval(Waiter.STALE_ELEMENT_WAIT_MS, MILLISECONDS)
+                   .ignoreExceptionsMatching(e -> !(e instanceof WaitAbortedException))
+                   .until(abortable(driver, () -> {
+                       dispatchJSEvent(locateElement(), eventName, true, true);
+                       return true;
+                   }));
+        } finally {
+            driver.recordWait("fireEvent", start);
+        }
     }
 
     protected boolean isWithinIFrame() {
@@ -409,12 +501,14 @@ class ElementImpl<T extends Element> implements Element<T> {
     @Override
     public T withIframe(Element iframeElement) {
         this.iframeElement = iframeElement;
+        resetLocatorChain();
         return (T) referenceElement;
     }
 
     @Override
     public T withHover(Element hoverElement) {
         this.hoverElement = hoverElement;
+        resetLocatorChain();
         return (T) referenceElement;
     }
 
@@ -439,9 +533,24 @@ class ElementImpl<T extends Element> implements Element<T> {
         return (T) referenceElement;
     }
 
+    @Override
+    public T withHandleCache() {
+        return withHandleCache(true);
+    }
+
+    public T withHandleCache(Boolean value) {
+        this.handleCache = value ? new ElementHandleCache(driver) : null;
+        return (T) referenceElement;
+    }
+
+    public boolean isHandleCacheEnabled() {
+        return handleCache != null;
+    }
+
     @Override
     public T withParent(Element parentElement) {
         this.parentElement = parentElement;
+        resetLocatorChain();
         return (T) referenceElement;
     }
 
@@ -490,7 +599,7 @@ class ElementImpl<T extends Element> implements Element<T> {
 
     @Override
     public void waitUntilDisplayed(TimeUnit timeUnit, final int waitTime) {
-        await().atMost(waitTime, timeUnit).until(this::isDisplayed);
+        waitUntil(BrowserWaiter.Condition.DISPLAYED, timeUnit, waitTime, this::isDisplayed);
     }
 
     @Override
@@ -500,7 +609,7 @@ class ElementImpl<T extends Element> implements Element<T> {
 
     @Override
     public void waitUntilNotDisplayed(TimeUnit timeUnit, final int waitTime) {
-        await().atMost(waitTime, timeUnit).until(() -> !isDisplayed());
+        waitUntil(BrowserWaiter.Condition.NOT_DISPLAYED, timeUnit, waitTime, () -> !isDisplayed());
     }
 
     @Override
@@ -510,7 +619,7 @@ class ElementImpl<T extends Element> implements Element<T> {
 
     @Override
     public void waitUntilEnabled(TimeUnit timeUnit, final int timeout) {
-        await().atMost(timeout, timeUnit).until(() -> isDisplayed() && isEnabled());
+        waitUntil(BrowserWaiter.Condition.ENABLED, timeUnit, timeout, () -> isDisplayed() && isEnabled());
     }
 
     @Override
@@ -520,7 +629,41 @@ class ElementImpl<T extends Element> implements Element<T> {
 
     @Override
     public void waitUntilNotEnabled(TimeUnit timeUnit, final int timeout) {
-        await().atMost(timeout, timeUnit).until(() -> !isDisplayed() || !isEnabled());
+        waitUntil(BrowserWaiter.Condition.NOT_ENABLED, timeUnit, timeout, () -> !isDisplayed() || !isEnabled());
+    }
+
+    private void waitUntil(BrowserWaiter.Condition condition, TimeUnit timeUnit, int timeout, Callable<Boolean> pollingCondition) {
+        long start = System.nanoTime();
+        try {
+            awaitCondition(condition, timeUnit, timeout, pollingCondition);
+        } finally {
+            driver.recordWait(condition.name(), start);
+        }
+    }
+
+    private void awaitCondition(BrowserWaiter.Condition condition, TimeUnit timeUnit, int timeout, Callable<Boolean> pollingCondition) {
+        if (!canWaitInBrowser()) {
+            await().atMost(timeout, timeUnit).until(abortable(driver, pollingCondition));
+            return;
+        }
+
+        long expireTime = Instant.now().toEpochMilli() + timeUnit.toMillis(timeout);
+        BrowserWaiter browserWaiter = new BrowserWaiter(driver, getLocatorChain(), this::switchToElementContext);
+        switch (browserWaiter.await(condition, expireTime)) {
+            case SATISFIED:
+                return;
+            case TIMED_OUT:
+                throw new ConditionTimeoutException(String.format("%s was not %s within %s %s",
+                                                                  getBy(), condition, timeout, timeUnit));
+            default:
+                // the page couldn't be watched so poll for whatever time is left
+                long remaining = Math.max(expireTime - Instant.now().toEpochMilli(), 1);
+                await().atMost(remaining, MILLISECONDS).until(abortable(driver, pollingCondition));
+        }
+    }
+
+    private boolean canWaitInBrowser() {
+        return driver.getWaitMode() == WaitMode.BROWSER && canLocateInScript();
     }
 
     @Override
@@ -0,0 +1,111 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.Value;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The state of an element read in a single script call. Useful for assertions that would
+ * otherwise call getText(), isDisplayed(), getAttribute(), etc one round trip at a time.
+ *
+ * Attributes are read the way selenium's getAttribute does: the property when the element has
+ * one with that name (so "value" and "checked" reflect the current state), the html attribute
+ * otherwise. Names starting with "css:" (e.g. "css:color") read the computed style instead, the
+ * way getCssValue() does, and are returned by {@link #getCssValue(String)} without the prefix.
+ */
+@Value
+public class ElementSnapshot {
+    private static final String SNAPSHOT_JS = LocatorChain.FIND_JS + BrowserWaiter.DISPLAYED_JS +
+            "var elements = arguments[0] || locate(arguments[1], arguments[2], true), names = arguments[3];" +
+            "function attribute(el, name) {" +
+            "  var value = (name in el && typeof el[name] !== 'object' && typeof el[name] !== 'function') ? el[name] : el.getAttribute(name);" +
+            "  if (typeof value === 'boolean') return value ? 'true' : null;" +
+            "  return value === null || value === undefined ? null : String(value);" +
+            "}" +
+            "return elements.map(function(el) {" +
+            "  var rect = el.getBoundingClientRect(), attributes = {}, cssValues = {}, style = null;" +
+            "  names.forEach(function(name) {" +
+            "    if (name.indexOf('css:') !== 0) {" +
+            "      attributes[name] = attribute(el, name);" +
+            "    } else {" +
+            "      style = style || window.getComputedStyle(el);" +
+            "      cssValues[name.slice(4)] = style.getPropertyValue(name.slice(4));" +
+            "    }" +
+            "  });" +
+            "  return {" +
+            "    tagName: el.tagName.toLowerCase()," +
+            "    text: (el.textContent || '').replace(/\\u00A0/g, ' ').trim()," +
+            "    displayed: displayed(el)," +
+            "    enabled: !el.disabled," +
+            "    selected: !!(el.checked || el.selected)," +
+            "    attributes: attributes," +
+            "    cssValues: cssValues," +
+            "    rect: [rect.left, rect.top, rect.height, rect.width]" +
+            "  };" +
+            "});";
+
+    String tagName;
+    String text;
+    boolean displayed;
+    boolean enabled;
+    boolean selected;
+    Map<String, String> attributes;
+    Map<String, String> cssValues;
+    Rectangle rect;
+
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * @param propertyName a css property requested as "css:" + propertyName
+     */
+    public String getCssValue(String propertyName) {
+        return cssValues.get(propertyName);
+    }
+
+    static List<ElementSnapshot> capture(Driver driver, List<WebElement> elements, String... attributes) {
+        return fromScriptResult(driver.executeScript(SNAPSHOT_JS, elements, null, null, Arrays.asList(attributes)));
+    }
+
+    static List<ElementSnapshot> capture(Driver driver, LocatorChain locatorChain, String... attributes) {
+        return fromScriptResult(driver.executeScript(SNAPSHOT_JS,
+                                                     null,
+                                                     locatorChain.getSteps(),
+                                                     locatorChain.getBaseElement(),
+                                                     Arrays.asList(attributes)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ElementSnapshot> fromScriptResult(Object result) {
+        if (result == null) return Collections.emptyList();
+        return ((List<Map<String, Object>>) result).stream().map(ElementSnapshot::fromMap).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ElementSnapshot fromMap(Map<String, Object> values) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        ((Map<String, Object>) values.get("attributes")).forEach((name, value) -> attributes.put(name, (String) value));
+        Map<String, String> cssValues = new LinkedHashMap<>();
+        ((Map<String, Object>) values.get("cssValues")).forEach((name, value) -> cssValues.put(name, (String) value));
+        List<Number> rect = (List<Number>) values.get("rect");
+        return new ElementSnapshot((String) values.get("tagName"),
+                                   (String) values.get("text"),
+                                   (Boolean) values.get("displayed"),
+                                   (Boolean) values.get("enabled"),
+                                   (Boolean) values.get("selected"),
+                                   Collections.unmodifiableMap(attributes),
+                                   Collections.unmodifiableMap(cssValues),
+                                   new Rectangle((int) Math.round(rect.get(0).doubleValue()),
+                                                 (int) Math.round(rect.get(1).doubleValue()),
+                                                 (int) Math.round(rect.get(2).doubleValue()),
+                                                 (int) Math.round(rect.get(3).doubleValue())));
+    }
+}
@@ -0,0 +1,39 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.google.common.collect.ImmutableMap;
+import com.lithium.mineraloil.selenium.metrics.InstrumentedWebDriver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorHandler;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+
+/**
+ * Gets a local file onto the node running a remote browser so a FileUploadElement can be given its path.
+ */
+@FunctionalInterface
+public interface FileTransport {
+    /**
+     * @param encodedZip a base64 encoded zip holding the single file to upload
+     * @return the path of the file on the node
+     */
+    String upload(WebDriver driver, String encodedZip);
+
+    // the grid's file upload endpoint, the same one selenium's LocalFileDetector uses
+    FileTransport GRID = (driver, encodedZip) -> {
+        RemoteWebDriver remoteDriver = (RemoteWebDriver) InstrumentedWebDriver.unwrap(driver);
+        try {
+            Response response = remoteDriver.getCommandExecutor().execute(new Command(remoteDriver.getSessionId(),
+                                                                                      DriverCommand.UPLOAD_FILE,
+                                                                                      ImmutableMap.of("file", encodedZip)));
+            new ErrorHandler(true).throwIfResponseFailed(response, 0);
+            return (String) response.getValue();
+        } catch (IOException e) {
+            throw new WebDriverException("Unable to upload file to the grid", e);
+        }
+    };
+}
@@ -4,10 +4,13 @@ import lombok.experimental.Delegate;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
 
-import java.time.Instant;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -20,33 +23,40 @@ public class FileUploadElement implements Element<FileUploadElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private FileUploadElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private FileUploadElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<FileUploadElement> toList() {
         List<FileUploadElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new FileUploadElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                         .withIframe(getIframeElement())
-                                                                                         .withHover(getHoverElement())
-                                                                                         .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new FileUploadElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                                 .withIframe(getIframeElement())
+                                                                                                                 .withHover(getHoverElement())
+                                                                                                                 .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
 
+    /**
+     * Sets the file(s) to upload. Multiple paths are separated by a newline. On a remote browser local files
+     * are uploaded to the node first; a file with the same content is only uploaded once per session.
+     *
+     * @param text the path of the file to upload
+     */
     public void type(final String text) {
         if (text == null) return;
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + SECONDS.toMillis(Waiter.DISPLAY_WAIT_S);
-        while (Instant.now().toEpochMilli() < expireTime && retries < 2) {
-            try {
-                elementImpl.locateElement().sendKeys(text);
-                return;
-            } catch (WebDriverException e) {
-                retries++;
-            }
+        String paths = Arrays.stream(text.split("\n"))
+                             .map(path -> new File(path).isFile() ? elementImpl.driver.getUploadPath(new File(path)) : path)
+                             .collect(Collectors.joining("\n"));
+        try {
+            elementImpl.retry(SECONDS.toMillis(Waiter.DISPLAY_WAIT_S), () -> {
+                elementImpl.locateElement().sendKeys(paths);
+                return null;
+            });
+        } catch (WebDriverException e) {
+            throw new NoSuchElementException("Unable to locate element: " + getBy());
         }
-        throw new NoSuchElementException("Unable to locate element: " + getBy());
     }
 }
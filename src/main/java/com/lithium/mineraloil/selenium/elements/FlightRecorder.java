@@ -0,0 +1,124 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Keeps the last few actions taken through the driver in memory so a failing test can write out how it got there
+ * with {@link Screenshot#saveFlightRecording(String)}. Nothing is written to disk unless that's called.
+ *
+ * Every action is recorded but a screenshot and the acted on element's html are only captured while the time
+ * spent capturing stays within the overhead budget, and no more often than the minimum capture interval.
+ * The oldest frames are dropped once there are more than maxFrames or they take up more than maxBytes.
+ */
+@Slf4j
+public class FlightRecorder {
+    private static final String OUTER_HTML_JS =
+            "var html = (arguments[0] || document.documentElement).outerHTML || ''; return html.length > arguments[1] ? html.substring(0, arguments[1]) + '...' : html;";
+
+    @Getter @Setter
+    private int maxFrames = 50;
+    @Getter @Setter
+    private long maxBytes = 32 * 1024 * 1024;
+    // the fraction of the time since recording started that may be spent capturing screenshots
+    @Getter @Setter
+    private double overheadBudget = 0.05;
+    @Getter @Setter
+    private long minCaptureIntervalMs = 500;
+    @Getter @Setter
+    private int maxHtmlLength = 4000;
+
+    private final Driver driver;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final long startedAt = System.nanoTime();
+    private long bytes;
+    private long captureNanos;
+    private long lastCaptureAt;
+    private int captures;
+    private int sequence;
+
+    FlightRecorder(Driver driver) {
+        this.driver = driver;
+    }
+
+    synchronized void record(String action, By by, WebElement element, String detail) {
+        byte[] screenshot = null;
+        String html = null;
+        long now = System.nanoTime();
+        if (shouldCapture(now)) {
+            try {
+                html = (String) driver.executeScript(OUTER_HTML_JS, element, maxHtmlLength);
+                screenshot = driver.takeScreenshotAsBytes();
+            } catch (WebDriverException e) {
+                log.debug("Unable to capture flight recorder frame", e);
+            }
+            lastCaptureAt = System.nanoTime();
+            captureNanos += lastCaptureAt - now;
+            captures++;
+        }
+        add(new Frame(sequence++, System.currentTimeMillis(), action, String.valueOf(by), detail, html, screenshot));
+    }
+
+    private boolean shouldCapture(long now) {
+        if (captures == 0) return true;
+        if (NANOSECONDS.toMillis(now - lastCaptureAt) < minCaptureIntervalMs) return false;
+        return captureNanos <= overheadBudget * (now - startedAt);
+    }
+
+    private void add(Frame frame) {
+        frames.addLast(frame);
+        bytes += frame.getSize();
+        while (frames.size() > maxFrames || (bytes > maxBytes && frames.size() > 1)) {
+            bytes -= frames.removeFirst().getSize();
+        }
+    }
+
+    public synchronized List<Frame> getFrames() {
+        return new ArrayList<>(frames);
+    }
+
+    public synchronized void clear() {
+        frames.clear();
+        bytes = 0;
+    }
+
+    // how much of the time since recording started has been spent capturing
+    public synchronized double getOverhead() {
+        long elapsed = System.nanoTime() - startedAt;
+        return elapsed == 0 ? 0 : (double) captureNanos / elapsed;
+    }
+
+    @Value
+    public static class Frame {
+        int sequence;
+        long timestamp;
+        String action;
+        String locator;
+        String detail;
+        String html;
+        byte[] screenshot;
+
+        long getSize() {
+            return (screenshot == null ? 0 : screenshot.length)
+                    + (html == null ? 0 : html.getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        String describe() {
+            return String.format("%03d\t%s\t%s\t%s\t%s", sequence, Instant.ofEpochMilli(timestamp), action, locator, detail == null ? "" : detail);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks which frame a webdriver session currently has focus on so elements only switch frames
+ * when they actually live in a different one.
+ *
+ * A frame path is the list of frames that have to be entered from the top level document, where
+ * each frame is identified by the locator or element it was found with. A null path means we
+ * don't know where focus is (e.g. someone used switchTo() directly or the page navigated) and the
+ * next switch has to start from the default content.
+ */
+class FrameTracker {
+    private List<Object> framePath;
+
+    synchronized boolean isAt(List<Object> path) {
+        return framePath != null && framePath.equals(path);
+    }
+
+    synchronized void set(List<Object> path) {
+        framePath = new ArrayList<>(path);
+    }
+
+    synchronized void invalidate() {
+        framePath = null;
+    }
+}
@@ -3,6 +3,7 @@ package com.lithium.mineraloil.selenium.elements;
 import lombok.experimental.Delegate;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,24 +20,30 @@ public class ImageElement implements Element<ImageElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private ImageElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private ImageElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<ImageElement> toList() {
         List<ImageElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new ImageElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                    .withIframe(getIframeElement())
-                                                                                    .withHover(getHoverElement())
-                                                                                    .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new ImageElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                            .withIframe(getIframeElement())
+                                                                                                            .withHover(getHoverElement())
+                                                                                                            .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
 
 
     public String getImageSource() {
-        Waiter.await().atMost(Waiter.INTERACT_WAIT_S, SECONDS).until(() -> StringUtils.isNotBlank(getAttribute("src")) || StringUtils.isNotBlank(getCssValue("background-image")));
+        long start = System.nanoTime();
+        try {
+            Waiter.await().atMost(Waiter.INTERACT_WAIT_S, SECONDS).until(Waiter.abortable(elementImpl.driver, () -> StringUtils.isNotBlank(getAttribute("src")) || StringUtils.isNotBlank(getCssValue("background-image"))));
+        } finally {
+            elementImpl.driver.recordWait("imageSource", start);
+        }
         if (StringUtils.isNotBlank(getAttribute("src"))) {
             return getAttribute("src");
         } else {
@@ -0,0 +1,10 @@
+package com.lithium.mineraloil.selenium.elements;
+
+public enum InputStrategy {
+    // send the text keystroke by keystroke in a single sendKeys
+    KEYSTROKES,
+    // set the value through the native value setter and fire input and change, falling back to keystrokes if it doesn't stick
+    NATIVE_SETTER,
+    // send the text in several smaller sendKeys so large payloads don't go out as one huge command
+    CHUNKED
+}
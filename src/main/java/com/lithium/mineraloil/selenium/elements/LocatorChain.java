@@ -0,0 +1,157 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles an element and its withParent() ancestors into a single script so nested elements
+ * can be located in one round trip instead of one findElement per ancestor.
+ *
+ * Only xpath, css, id, name, tag name and class name locators can be composed. The walk up
+ * the parents stops at the first ancestor that can't be composed (unsupported locator, hover,
+ * autoscroll, handle cache, a different iframe or an indexed list element). That ancestor is
+ * located the usual way and used as the starting point of the script.
+ */
+class LocatorChain {
+    private static final String XPATH = "xpath";
+    private static final String CSS = "css";
+    // defines find(step, context, many) and locate(steps, node, many) for use by other scripts
+    static final String FIND_JS =
+            "function find(step, context, many) {" +
+            "  if (step[0] === 'css') {" +
+            "    return many ? Array.prototype.slice.call(context.querySelectorAll(step[1])) : context.querySelector(step[1]);" +
+            "  }" +
+            "  if (many) {" +
+            "    var result = document.evaluate(step[1], context, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), nodes = [];" +
+            "    for (var i = 0; i < result.snapshotLength; i++) nodes.push(result.snapshotItem(i));" +
+            "    return nodes;" +
+            "  }" +
+            "  return document.evaluate(step[1], context, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "}" +
+            "function locate(steps, node, many) {" +
+            "  node = node || document;" +
+            "  for (var i = 0; i < steps.length - 1; i++) {" +
+            "    node = find(steps[i], node, false);" +
+            "    if (!node) return many ? [] : null;" +
+            "  }" +
+            "  return find(steps[steps.length - 1], node, many);" +
+            "}";
+    private static final String LOCATE_JS = FIND_JS + "return locate(arguments[0], arguments[2], arguments[1]);";
+
+    private final List<List<String>> steps;
+    private final Element base;
+    private final By by;
+
+    private LocatorChain(List<List<String>> steps, Element base, By by) {
+        this.steps = steps;
+        this.base = base;
+        this.by = by;
+    }
+
+    /**
+     * @return the compiled chain or null when the element's own locator can't be composed
+     */
+    static LocatorChain compile(Element element) {
+        List<By> locators = new ArrayList<>();
+        locators.add(element.getBy());
+        Element base = null;
+        Element parent = element.getParentElement();
+        while (parent != null) {
+            if (!isComposableAncestor(parent, element)) {
+                base = parent;
+                break;
+            }
+            locators.add(parent.getBy());
+            parent = parent.getParentElement();
+        }
+        Collections.reverse(locators);
+        List<List<String>> steps = new ArrayList<>();
+        for (int i = 0; i < locators.size(); i++) {
+            List<String> step = toStep(locators.get(i), i > 0 || base != null);
+            if (step == null) return null;
+            steps.add(step);
+        }
+        return new LocatorChain(steps, base, element.getBy());
+    }
+
+    private static boolean isComposableAncestor(Element ancestor, Element element) {
+        return ancestor.getFramePath().equals(element.getFramePath())
+                && ancestor.getHoverElement() == null
+                && !ancestor.isAutoScrollIntoView()
+                && !ancestor.isAutoScrollToEnd()
+                && !ancestor.isHandleCacheEnabled()
+                && ancestor.getIndex() < 0
+                && toStep(ancestor.getBy(), true) != null;
+    }
+
+    // converts a locator to an [xpath|css, expression] pair the same way selenium does for the w3c protocol
+    private static List<String> toStep(By by, boolean withinParent) {
+        if (by instanceof By.ByXPath) {
+            By xpath = withinParent ? ElementImpl.getByForParentElement(by) : by;
+            return Arrays.asList(XPATH, getLocatorValue(xpath));
+        } else if (by instanceof By.ByCssSelector) {
+            return Arrays.asList(CSS, getLocatorValue(by));
+        } else if (by instanceof By.ById) {
+            return Arrays.asList(CSS, String.format("[id=\"%s\"]", escapeAttributeValue(getLocatorValue(by))));
+        } else if (by instanceof By.ByName) {
+            return Arrays.asList(CSS, String.format("[name=\"%s\"]", escapeAttributeValue(getLocatorValue(by))));
+        } else if (by instanceof By.ByTagName) {
+            String tagName = getLocatorValue(by);
+            return tagName.matches("[A-Za-z][\\w-]*") ? Arrays.asList(CSS, tagName) : null;
+        } else if (by instanceof By.ByClassName) {
+            String className = getLocatorValue(by);
+            return className.matches("-?[_A-Za-z][\\w-]*") ? Arrays.asList(CSS, "." + className) : null;
+        }
+        return null;
+    }
+
+    private static String getLocatorValue(By by) {
+        String locator = by.toString();
+        return locator.substring(locator.indexOf(": ") + 2);
+    }
+
+    private static String escapeAttributeValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    WebElement findElement(Driver driver) {
+        Object element = driver.executeScript(LOCATE_JS, steps, false, getBaseElement());
+        if (element == null) {
+            throw new NoSuchElementException(String.format("Unable to locate element using %s", this));
+        }
+        return (WebElement) element;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<WebElement> findElements(Driver driver) {
+        Object elements = driver.executeScript(LOCATE_JS, steps, true, getBaseElement());
+        if (elements == null) return new ArrayList<>();
+        return ((List<Object>) elements).stream().map(WebElement.class::cast).collect(Collectors.toList());
+    }
+
+    // a single locator without a parent is just a findElement so there's nothing to gain from the script
+    boolean isComposed() {
+        return steps.size() > 1;
+    }
+
+    List<List<String>> getSteps() {
+        return steps;
+    }
+
+    WebElement getBaseElement() {
+        return base == null ? null : base.locateElement();
+    }
+
+    @Override
+    public String toString() {
+        if (!isComposed()) return by.toString();
+        return String.format("%s within %s", by, steps.subList(0, steps.size() - 1));
+    }
+}
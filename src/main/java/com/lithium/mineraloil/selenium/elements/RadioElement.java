@@ -3,6 +3,7 @@ package com.lithium.mineraloil.selenium.elements;
 import lombok.experimental.Delegate;
 import org.openqa.selenium.By;
 import org.openqa.selenium.ElementNotVisibleException;
+import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,17 +17,18 @@ public class RadioElement implements Element<RadioElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private RadioElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private RadioElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<RadioElement> toList() {
         List<RadioElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new RadioElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                    .withIframe(getIframeElement())
-                                                                                    .withHover(getHoverElement())
-                                                                                    .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new RadioElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                            .withIframe(getIframeElement())
+                                                                                                            .withHover(getHoverElement())
+                                                                                                            .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
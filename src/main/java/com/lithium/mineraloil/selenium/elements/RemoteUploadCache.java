@@ -0,0 +1,103 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Remembers which files have already been uploaded to the node running a remote browser session.
+ *
+ * Files are keyed by the SHA-256 of their content (and their name, which the page gets to see) so the
+ * same fixture is only sent once per session no matter where it's read from locally. The hash is
+ * remembered by path, length and modification time, so a file that hasn't changed is only read once.
+ * Files are read in chunks and zipped into the base64 payload; the payload itself is built in memory.
+ */
+@Slf4j
+class RemoteUploadCache {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Map<String, String> remotePaths = new ConcurrentHashMap<>();
+    private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+
+    String getRemotePath(WebDriver driver, FileTransport transport, File file) {
+        String key = contentHash(file) + "/" + file.getName();
+        String remotePath = remotePaths.get(key);
+        if (remotePath != null) {
+            log.debug(String.format("Reusing upload of %s at %s", file, remotePath));
+            return remotePath;
+        }
+        long start = System.currentTimeMillis();
+        remotePath = transport.upload(driver, encode(file));
+        log.debug(String.format("Uploaded %s to %s in %sms", file, remotePath, System.currentTimeMillis() - start));
+        remotePaths.put(key, remotePath);
+        return remotePath;
+    }
+
+    int size() {
+        return remotePaths.size();
+    }
+
+    private String contentHash(File file) {
+        String fileKey;
+        try {
+            fileKey = String.format("%s:%s:%s", file.getCanonicalPath(), file.length(), file.lastModified());
+        } catch (IOException e) {
+            throw new WebDriverException("Unable to read file for upload: " + file, e);
+        }
+        return contentHashes.computeIfAbsent(fileKey, key -> sha256(file));
+    }
+
+    static String sha256(File file) {
+        try (InputStream in = new FileInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new WebDriverException("Unable to read file for upload: " + file, e);
+        }
+    }
+
+    static String encode(File file) {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (InputStream in = new FileInputStream(file);
+             OutputStream base64 = Base64.getEncoder().wrap(encoded);
+             ZipOutputStream zip = new ZipOutputStream(base64)) {
+            // fixtures are often already compressed so favor speed over size
+            zip.setLevel(Deflater.BEST_SPEED);
+            zip.putNextEntry(new ZipEntry(file.getName()));
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                zip.write(buffer, 0, read);
+            }
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new WebDriverException("Unable to read file for upload: " + file, e);
+        }
+        return new String(encoded.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
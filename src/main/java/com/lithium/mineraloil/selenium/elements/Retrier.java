@@ -0,0 +1,63 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.google.common.base.Throwables;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Instant;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs selenium calls under the driver's {@link RetryPolicy}. The last WebDriverException
+ * is rethrown once the attempts or the time budget run out so callers can decide how to
+ * report the failure.
+ */
+class Retrier {
+    private final Driver driver;
+
+    Retrier(Driver driver) {
+        this.driver = driver;
+    }
+
+    <E> E call(long budgetMillis, Callable<E> callable, Runnable onFailure) {
+        return call(budgetMillis, driver.getRetryPolicy().getMaxAttempts(), callable, onFailure);
+    }
+
+    // retries until the time budget runs out regardless of the policy's attempt limit
+    <E> E callUntilTimeout(long budgetMillis, Callable<E> callable, Runnable onFailure) {
+        return call(budgetMillis, Integer.MAX_VALUE, callable, onFailure);
+    }
+
+    private <E> E call(long budgetMillis, int maxAttempts, Callable<E> callable, Runnable onFailure) {
+        RetryPolicy retryPolicy = driver.getRetryPolicy();
+        long expireTime = Instant.now().toEpochMilli() + budgetMillis;
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            try {
+                return callable.call();
+            } catch (WebDriverException e) {
+                onFailure.run();
+                driver.checkAbortConditions();
+                if (!retryPolicy.isRetryable(e) || attempt >= maxAttempts) throw e;
+
+                long remaining = expireTime - Instant.now().toEpochMilli();
+                long backoff = retryPolicy.getBackoffMillis(attempt, e);
+                if (remaining <= backoff) throw e;
+                sleep(backoff, e);
+            } catch (Exception e) {
+                Throwables.throwIfUnchecked(e);
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private void sleep(long millis, WebDriverException lastException) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lastException;
+        }
+    }
+}
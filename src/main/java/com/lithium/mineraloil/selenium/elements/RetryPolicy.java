@@ -0,0 +1,24 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Decides how element lookups and interactions are retried when selenium throws.
+ * Each call site supplies its own time budget; the policy decides how many attempts
+ * fit in it and how long to back off between them.
+ */
+public interface RetryPolicy {
+
+    int getMaxAttempts();
+
+    /**
+     * @return false when retrying can't help, e.g. the browser session is gone
+     */
+    boolean isRetryable(WebDriverException exception);
+
+    /**
+     * @param attempt the number of the attempt that just failed, starting at 1
+     * @return how long to wait before the next attempt
+     */
+    long getBackoffMillis(int attempt, WebDriverException exception);
+}
@@ -1,25 +1,24 @@
 package com.lithium.mineraloil.selenium.elements;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
-import org.openqa.selenium.remote.ScreenshotException;
 import org.openqa.selenium.remote.UnreachableBrowserException;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * Captures screenshots, html and console logs for a test. Only the capture happens on the calling thread;
+ * the files are written in the background, so call flush() before reading them back or at the end of a run.
+ */
 @Slf4j
 public class Screenshot {
-    private static String rootDirectory = String.format("%s/%s", System.getProperty("user.dir"),"build/test-output");
+    private static final ArtifactStore artifactStore =
+            new ArtifactStore(new ArtifactWriter(), new File(String.format("%s/%s", System.getProperty("user.dir"), "build/test-output")));
+    private static volatile float jpegQuality;
     private final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("HH'h'mm'm'ss's'");
     private final Driver driver;
 
@@ -28,7 +27,32 @@ public class Screenshot {
     }
 
     public static void setRootDirectory(String dirname) {
-        rootDirectory = dirname;
+        artifactStore.setRootDirectory(new File(dirname));
+    }
+
+    /**
+     * Caps the size of everything under the root directory, including artifacts left by earlier runs.
+     * The least recently written artifacts are deleted to stay under it.
+     */
+    public static void setMaxTotalBytes(long maxBytes) {
+        artifactStore.setMaxBytes(maxBytes);
+    }
+
+    // deletes artifacts under the root directory once they're older than this
+    public static void setMaxArtifactAge(long age, TimeUnit unit) {
+        artifactStore.setMaxAgeMs(unit.toMillis(age));
+    }
+
+    /**
+     * Transcodes screenshots to jpeg at the given quality, between 0 and 1. 0 keeps them as png.
+     */
+    public static void setJpegQuality(float quality) {
+        jpegQuality = quality;
+    }
+
+    // waits for all captured artifacts to be written to disk
+    public static void flush() {
+        artifactStore.flush();
     }
 
     public void saveScreenshot(String filename) {
@@ -37,13 +61,12 @@ public class Screenshot {
             return;
         }
 
-        File file = getOutputFile(filename, ".png");
+        File file = getOutputFile(filename, jpegQuality > 0 ? ".jpg" : ".png");
         log.info("Capturing screenshot: " + file.getAbsolutePath());
 
         try {
-            File scrFile = driver.takeScreenshot();
-            FileUtils.copyFile(scrFile, new File(file.getAbsolutePath()));
-        } catch (IOException | UnreachableBrowserException e) {
+            artifactStore.storeImage(file, filename, driver.takeScreenshotAsBytes(), jpegQuality);
+        } catch (UnreachableBrowserException e) {
             log.error(" Unable to take screenshot: " + e.toString());
         }
     }
@@ -56,11 +79,7 @@ public class Screenshot {
         File file = getOutputFile(filename, ".html");
         log.info("Capturing HTML: " + file.getAbsolutePath());
 
-        try (Writer writer = getWriter(file)) {
-            writer.write(driver.getHtml());
-        } catch (IOException ex) {
-            log.info("Unable to write out current state of html");
-        }
+        artifactStore.store(file, filename, driver.getHtml().getBytes(StandardCharsets.UTF_8));
     }
 
     public void saveConsoleLog(String filename) {
@@ -72,46 +91,56 @@ public class Screenshot {
         File file = getOutputFile(filename, ".log");
         log.info("Capturing browser console log: " + file.getAbsolutePath());
 
-        try (Writer writer = getWriter(file)) {
-            writer.write(driver.getConsoleLog()
-                               .getAll()
-                               .stream()
-                               .map(logEntry -> logEntry.getLevel().toString()
-                                                        .concat(": ")
-                                                        .concat(logEntry.getMessage())
-                                                        .concat("\n"))
-                               .collect(Collectors.joining()));
-        } catch (IOException ex) {
-            log.info("Unable to write out current console log");
-        }
+        String consoleLog = driver.getBufferedConsoleLog()
+                                  .stream()
+                                  .map(logEntry -> logEntry.getLevel().toString()
+                                                           .concat(": ")
+                                                           .concat(logEntry.getMessage())
+                                                           .concat("\n"))
+                                  .collect(Collectors.joining());
+        artifactStore.store(file, filename, consoleLog.getBytes(StandardCharsets.UTF_8));
     }
 
-    private File getOutputFile(String filename, String suffix) {
-        File file = new File(getUniqueFilename(filename, suffix));
-        File dir = file.getParentFile();
-        log.info("Creating output directory: " + dir.getAbsolutePath());
-        if (!dir.exists()) {
-            boolean result = dir.mkdirs();
-            if (!result) {
-                throw new ScreenshotException("Unable to create directory: " + dir.getAbsolutePath());
+    /**
+     * Writes out the frames kept by the driver's flight recorder: a screenshot and html fragment per captured
+     * frame along with a frames.tsv listing every recorded action. The recorder is cleared afterwards.
+     */
+    public void saveFlightRecording(String filename) {
+        FlightRecorder flightRecorder = driver.getFlightRecorder();
+        if (flightRecorder == null) {
+            log.error("Flight recorder not started. Unable to save flight recording");
+            return;
+        }
+
+        File dir = getOutputFile(filename, "_flight");
+        log.info("Saving flight recording: " + dir.getAbsolutePath());
+
+        StringBuilder index = new StringBuilder();
+        for (FlightRecorder.Frame frame : flightRecorder.getFrames()) {
+            index.append(frame.describe()).append("\n");
+            String name = String.format("%03d_%s", frame.getSequence(), frame.getAction());
+            if (frame.getScreenshot() != null) {
+                artifactStore.storeImage(new File(dir, name + (jpegQuality > 0 ? ".jpg" : ".png")), filename, frame.getScreenshot(), jpegQuality);
+            }
+            if (frame.getHtml() != null) {
+                artifactStore.store(new File(dir, name + ".html.gz"), filename, frame.getHtml().getBytes(StandardCharsets.UTF_8));
             }
         }
-        return file;
+        artifactStore.store(new File(dir, "frames.tsv"), filename, index.toString().getBytes(StandardCharsets.UTF_8));
+        flightRecorder.clear();
     }
 
-    private String getUniqueFilename(String filename, String suffix) {
+    // the directory is created by the artifact writer
+    private File getOutputFile(String filename, String suffix) {
+        return artifactStore.newFile(getArtifactName(filename), suffix);
+    }
+
+    private String getArtifactName(String filename) {
         // remove parens from method name part
         String name = filename.replaceAll("[()]", "");
         // replace package parts to create nested directories
         name = name.replaceAll("\\.", "/");
-        // add a timestamp, uuid and suffix
-        name += "_" + LocalDateTime.now().format(DATE_FORMAT) + "_" + Thread.currentThread().getId() + suffix;
-        // prepend the directory
-        name = String.format("%s/%s", rootDirectory, name);
-        return name;
-    }
-
-    private BufferedWriter getWriter(File file) throws FileNotFoundException {
-        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file.getAbsolutePath()), StandardCharsets.UTF_8));
+        // add a timestamp and thread id, the artifact store adds a sequence number and the suffix
+        return name + "_" + LocalDateTime.now().format(DATE_FORMAT) + "_" + Thread.currentThread().getId();
     }
 }
@@ -2,20 +2,59 @@ package com.lithium.mineraloil.selenium.elements;
 
 import lombok.experimental.Delegate;
 import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotInteractableException;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
 
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class SelectListElement implements Element<SelectListElement>, SelectList {
+    private static final String OPTIONS_JS =
+            "var options = arguments[0].options, result = [];" +
+            "for (var i = 0; i < options.length; i++) {" +
+            "  result.push({text: options[i].text, value: options[i].value, index: i, selected: options[i].selected});" +
+            "}" +
+            "return result;";
+    // selects the first option matching by text, text fragment, value or index and fires the events a user
+    // selection would. Only options a user could pick are selected: a hidden or disabled select reports
+    // retry and a disabled option an error. Returns the text of the selected option or null if there's
+    // no such option.
+    private static final String SELECT_JS =
+            "var select = arguments[0], by = arguments[1], value = arguments[2], option = null;" +
+            "if (!select.getClientRects().length) return {retry: 'is not displayed'};" +
+            "if (select.disabled) return {retry: 'is disabled'};" +
+            "for (var i = 0; i < select.options.length && !option; i++) {" +
+            "  var candidate = select.options[i];" +
+            "  if ((by === 'text' && candidate.text === value) ||" +
+            "      (by === 'contains' && candidate.text.indexOf(value) >= 0) ||" +
+            "      (by === 'value' && candidate.value === value) ||" +
+            "      (by === 'index' && i === value)) option = candidate;" +
+            "}" +
+            "if (!option) return null;" +
+            "if (option.disabled) return {error: \"option '\" + option.text + \"' is disabled\"};" +
+            "if (!option.selected) {" +
+            "  option.selected = true;" +
+            "  select.dispatchEvent(new Event('input', {bubbles: true}));" +
+            "  select.dispatchEvent(new Event('change', {bubbles: true}));" +
+            "}" +
+            "return {text: option.text};";
+    // long enough to cover back to back reads, short enough not to miss options loaded by the page
+    private static final long OPTIONS_TTL_MS = 500;
+
+    private List<SelectOption> options;
+    private long optionsReadAt;
+
     @Delegate
     private final ElementImpl<SelectListElement> elementImpl;
 
@@ -23,17 +62,18 @@ public class SelectListElement implements Element<SelectListElement>, SelectList
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private SelectListElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private SelectListElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<SelectListElement> toList() {
         List<SelectListElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new SelectListElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                         .withIframe(getIframeElement())
-                                                                                         .withHover(getHoverElement())
-                                                                                         .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new SelectListElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                                 .withIframe(getIframeElement())
+                                                                                                                 .withHover(getHoverElement())
+                                                                                                                 .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
@@ -41,31 +81,23 @@ public class SelectListElement implements Element<SelectListElement>, SelectList
 
     @Override
     public String getSelectedOption() {
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + SECONDS.toMillis(Waiter.DISPLAY_WAIT_S);
-        while (Instant.now().toEpochMilli() < expireTime && retries < 2) {
-            try {
-                return new Select(elementImpl.locateElement()).getFirstSelectedOption().getText();
-            } catch (WebDriverException e) {
-                retries++;
-            }
-        }
-        throw new NoSuchElementException("Unable to locate element: " + getBy());
+        return readOptions().stream()
+                            .filter(SelectOption::isSelected)
+                            .map(SelectOption::getText)
+                            .findFirst()
+                            .orElseThrow(() -> new NoSuchElementException("No options are selected in " + getBy()));
     }
 
     @Override
     public void select(String optionText) {
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + SECONDS.toMillis(Waiter.DISPLAY_WAIT_S);
-        while (Instant.now().toEpochMilli() < expireTime && retries < 2) {
-            try {
-                new Select(elementImpl.locateElement()).selectByVisibleText(optionText);
-                return;
-            } catch (WebDriverException e) {
-                retries++;
-            }
-        }
-        throw new NoSuchElementException("Unable to locate element: " + getBy());
+        options = null;
+        Consumer<WebElement> recordAction = elementImpl.driver.recordActionOnce("select", getBy(), optionText);
+        retry(() -> {
+            WebElement element = elementImpl.locateElement();
+            recordAction.accept(element);
+            new Select(element).selectByVisibleText(optionText);
+            return null;
+        });
     }
 
     @Override
@@ -75,29 +107,79 @@ public class SelectListElement implements Element<SelectListElement>, SelectList
 
     @Override
     public void selectIfContains(String optionText) {
-        List<String> options = getAvailableOptions().stream()
-                                                    .filter(opt -> opt.contains(optionText))
-                                                    .collect(Collectors.toList());
-        if (options.isEmpty()) {
-            throw new NoSuchElementException("Unable to locate select list item containing: " + optionText);
-        }
-        select(options.get(0));
+        selectBy("contains", optionText, "containing: " + optionText);
+    }
+
+    public void selectByValue(String value) {
+        selectBy("value", value, "with value: " + value);
+    }
+
+    public void selectByIndex(int index) {
+        selectBy("index", index, "at index: " + index);
     }
 
     @Override
     public List<String> getAvailableOptions() {
-        int retries = 0;
-        long expireTime = Instant.now().toEpochMilli() + SECONDS.toMillis(Waiter.DISPLAY_WAIT_S);
-        while (Instant.now().toEpochMilli() < expireTime && retries < 2) {
-            try {
-                return new Select(elementImpl.locateElement()).getOptions()
-                                                              .stream()
-                                                              .map(WebElement::getText)
-                                                              .collect(Collectors.toList());
-            } catch (WebDriverException e) {
-                retries++;
+        return getOptions().stream().map(SelectOption::getText).collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the text, value and selected state of every option in a single script call. The result is
+     * reused for a short time so back to back lookups don't read a long list again.
+     */
+    public List<SelectOption> getOptions() {
+        if (options == null || System.currentTimeMillis() - optionsReadAt > OPTIONS_TTL_MS) {
+            options = readOptions();
+            optionsReadAt = System.currentTimeMillis();
+        }
+        return options;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SelectOption> readOptions() {
+        List<Map<String, Object>> result = retry(() -> (List<Map<String, Object>>) elementImpl.driver.executeScript(OPTIONS_JS,
+                                                                                                                      elementImpl.locateElement()));
+        return Collections.unmodifiableList(result.stream()
+                                                  .map(option -> new SelectOption((String) option.get("text"),
+                                                                                  (String) option.get("value"),
+                                                                                  ((Number) option.get("index")).intValue(),
+                                                                                  (Boolean) option.get("selected")))
+                                                  .collect(Collectors.toList()));
+    }
+
+    // for selections made by a script outside of this element, e.g. an ActionBatch
+    void invalidateOptions() {
+        options = null;
+    }
+
+    // selects the option in one script call rather than reading the options and clicking one
+    @SuppressWarnings("unchecked")
+    private void selectBy(String by, Object value, String option) {
+        options = null;
+        Consumer<WebElement> recordAction = elementImpl.driver.recordActionOnce("select", getBy(), by + " " + value);
+        Map<String, Object> result = retry(() -> {
+            WebElement element = elementImpl.locateElement();
+            recordAction.accept(element);
+            Map<String, Object> selected = (Map<String, Object>) elementImpl.driver.executeScript(SELECT_JS, element, by, value);
+            // retried the same as selenium's own interaction errors since the page may still be enabling it
+            if (selected != null && selected.containsKey("retry")) {
+                throw new ElementNotInteractableException(String.format("%s %s", getBy(), selected.get("retry")));
             }
+            return selected;
+        });
+        if (result == null) {
+            throw new NoSuchElementException("Unable to locate select list item " + option);
+        }
+        if (result.containsKey("error")) {
+            throw new NoSuchElementException(String.format("Unable to select list item %s: %s", option, result.get("error")));
+        }
+    }
+
+    private <E> E retry(Callable<E> callable) {
+        try {
+            return elementImpl.retry(SECONDS.toMillis(Waiter.DISPLAY_WAIT_S), callable);
+        } catch (WebDriverException e) {
+            throw new NoSuchElementException("Unable to locate element: " + getBy(), e);
         }
-        throw new NoSuchElementException("Unable to locate element: " + getBy());
     }
 }
@@ -0,0 +1,14 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import lombok.Value;
+
+/**
+ * An option of a select list as read by {@link SelectListElement#getOptions()}.
+ */
+@Value
+public class SelectOption {
+    String text;
+    String value;
+    int index;
+    boolean selected;
+}
@@ -0,0 +1,289 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.google.common.base.Preconditions;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks across several browser sessions, each session with its own {@link Driver} and thread.
+ *
+ * A task is queued on the session with the least work and a session that runs out of work takes tasks from
+ * the back of the others' queues. When a task fails and its session turns out to be dead the session is
+ * replaced and the task is run once more; any other failure completes the task's future exceptionally.
+ *
+ * Sessions run on virtual threads when the JVM has them (Java 21 and later) and on daemon threads otherwise.
+ */
+@Slf4j
+public class SessionScheduler implements AutoCloseable {
+    // Thread.ofVirtual() and the Thread.Builder methods, or null before Java 21
+    private static final Method[] VIRTUAL_THREAD_BUILDER = findVirtualThreadBuilder();
+
+    private final Supplier<Driver> driverFactory;
+    private final List<Session> sessions = new ArrayList<>();
+    // one permit per queued task
+    private final Semaphore queued = new Semaphore(0);
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    private final AtomicInteger nextSession = new AtomicInteger();
+    private final long startTime = System.currentTimeMillis();
+    private volatile boolean closed;
+
+    public SessionScheduler(DriverConfiguration driverConfiguration, int sessionCount) {
+        this(sessionCount, () -> {
+            Driver driver = new Driver();
+            driver.setDriverConfiguration(driverConfiguration);
+            driver.startDriver();
+            return driver;
+        });
+    }
+
+    /**
+     * @param driverFactory returns a Driver with a started session, e.g. one leasing from a {@link DriverPool}
+     */
+    public SessionScheduler(int sessionCount, Supplier<Driver> driverFactory) {
+        Preconditions.checkArgument(sessionCount > 0, "sessionCount must be positive");
+        this.driverFactory = driverFactory;
+        for (int i = 0; i < sessionCount; i++) {
+            sessions.add(new Session(i));
+        }
+        liveSessions.set(sessionCount);
+        // each session starts its browser on its own thread so they all start at once
+        sessions.forEach(session -> newThread("mineraloil-session-" + session.index, session).start());
+    }
+
+    public static boolean isUsingVirtualThreads() {
+        return VIRTUAL_THREAD_BUILDER != null;
+    }
+
+    public CompletableFuture<Void> submit(Consumer<Driver> task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (closed || liveSessions.get() == 0) {
+            future.completeExceptionally(new IllegalStateException("Session scheduler has no sessions to run tasks on"));
+            return future;
+        }
+        Session session = sessions.get(0);
+        int start = nextSession.getAndIncrement();
+        for (int i = 0; i < sessions.size(); i++) {
+            Session candidate = sessions.get(Math.floorMod(start + i, sessions.size()));
+            if (candidate.alive && (!session.alive || candidate.queue.size() < session.queue.size())) session = candidate;
+        }
+        session.queue.addLast(new Task(task, future));
+        queued.release();
+        // the last session may have died and failed the queued tasks while this one was being queued
+        if (liveSessions.get() == 0) failQueuedTasks();
+        return future;
+    }
+
+    public List<SessionStats> getStats() {
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - startTime);
+        List<SessionStats> stats = new ArrayList<>();
+        for (Session session : sessions) {
+            long completed = session.completed.get();
+            stats.add(new SessionStats(session.index,
+                                       completed,
+                                       session.failed.get(),
+                                       session.replaced.get(),
+                                       TimeUnit.NANOSECONDS.toMillis(session.busyNanos.get()),
+                                       completed * 60000.0 / elapsedMs));
+        }
+        return stats;
+    }
+
+    /**
+     * Waits for the queued tasks to finish and stops the sessions.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Session session : sessions) {
+            try {
+                session.finished.get(10, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                log.error("Session " + session.index + " didn't finish: " + e.toString());
+            }
+        }
+    }
+
+    // the next task for the session, its own first and otherwise the oldest one queued on another session
+    private Task take(Session session) throws InterruptedException {
+        while (!queued.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            if (closed) return null;
+        }
+        while (true) {
+            Task task = session.queue.pollFirst();
+            if (task != null) return task;
+            for (Session other : sessions) {
+                task = other.queue.pollLast();
+                if (task != null) return task;
+            }
+        }
+    }
+
+    private void sessionLost() {
+        if (liveSessions.decrementAndGet() > 0) return;
+        failQueuedTasks();
+    }
+
+    // nothing is left to run the queued tasks
+    private void failQueuedTasks() {
+        for (Session session : sessions) {
+            Task task;
+            while ((task = session.queue.pollFirst()) != null) {
+                queued.tryAcquire();
+                task.future.completeExceptionally(new IllegalStateException("All sessions of the scheduler were lost"));
+            }
+        }
+    }
+
+    private static Thread newThread(String name, Runnable runnable) {
+        if (VIRTUAL_THREAD_BUILDER != null) {
+            try {
+                Object builder = VIRTUAL_THREAD_BUILDER[0].invoke(null);
+                builder = VIRTUAL_THREAD_BUILDER[1].invoke(builder, name);
+                return (Thread) VIRTUAL_THREAD_BUILDER[2].invoke(builder, runnable);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.debug("Unable to create a virtual thread", e);
+            }
+        }
+        return DaemonThreads.named(name).newThread(runnable);
+    }
+
+    private static Method[] findVirtualThreadBuilder() {
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            return new Method[]{Thread.class.getMethod("ofVirtual"),
+                                builder.getMethod("name", String.class),
+                                builder.getMethod("unstarted", Runnable.class)};
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private class Session implements Runnable {
+        private final int index;
+        private final LinkedBlockingDeque<Task> queue = new LinkedBlockingDeque<>();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong replaced = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private volatile boolean alive = true;
+        private Driver driver;
+
+        private Session(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!startDriver()) return;
+                Task task;
+                while ((task = take(this)) != null) {
+                    if (!runTask(task)) return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (alive) {
+                    alive = false;
+                    sessionLost();
+                }
+                stopDriver();
+                finished.complete(null);
+            }
+        }
+
+        // false when the session died and couldn't be replaced
+        private boolean runTask(Task task) {
+            long start = System.nanoTime();
+            try {
+                task.action.accept(driver);
+                completed.incrementAndGet();
+                task.future.complete(null);
+                return true;
+            } catch (Throwable e) {
+                if (isDriverAlive()) {
+                    failed.incrementAndGet();
+                    task.future.completeExceptionally(e);
+                    return true;
+                }
+                log.info(String.format("Session %s died running a task, replacing it: %s", index, e));
+                if (task.attempts++ == 0) {
+                    queue.addFirst(task);
+                    queued.release();
+                } else {
+                    failed.incrementAndGet();
+                    task.future.completeExceptionally(e);
+                }
+                replaced.incrementAndGet();
+                stopDriver();
+                return startDriver();
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        private boolean startDriver() {
+            try {
+                driver = driverFactory.get();
+                return true;
+            } catch (RuntimeException e) {
+                log.error(String.format("Unable to start session %s: %s", index, e));
+                driver = null;
+                return false;
+            }
+        }
+
+        private void stopDriver() {
+            if (driver == null) return;
+            try {
+                driver.stop();
+            } catch (RuntimeException e) {
+                log.debug("Unable to stop session " + index, e);
+            }
+            driver = null;
+        }
+
+        private boolean isDriverAlive() {
+            try {
+                driver.getWindowHandles();
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    private static class Task {
+        private final Consumer<Driver> action;
+        private final CompletableFuture<Void> future;
+        private int attempts;
+
+        private Task(Consumer<Driver> action, CompletableFuture<Void> future) {
+            this.action = action;
+            this.future = future;
+        }
+    }
+
+    @Value
+    public static class SessionStats {
+        int session;
+        long completed;
+        long failed;
+        long replaced;
+        long busyMs;
+        double tasksPerMinute;
+    }
+}
@@ -0,0 +1,113 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Column oriented contents of a table as returned by {@link TableElement#extract()}.
+ *
+ * Cell text is trimmed with non-breaking spaces normalized, the same as getText().
+ * Numeric columns are parsed on request; whitespace and well-formed grouping commas (1,234,567.89) are
+ * ignored. Any other comma, such as a decimal comma, is rejected rather than guessed at.
+ */
+public class TableData {
+    private static final Pattern GROUPED_NUMBER = Pattern.compile("^[-+]?\\d{1,3}(,\\d{3})+(\\.\\d+)?$");
+
+    private final List<String> headers;
+    private final List<List<String>> columns;
+    private final int rowCount;
+
+    TableData(List<String> headers, List<List<String>> columns) {
+        this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+        this.columns = Collections.unmodifiableList(columns.stream()
+                                                           .map(column -> Collections.unmodifiableList(new ArrayList<>(column)))
+                                                           .collect(Collectors.toList()));
+        this.rowCount = columns.isEmpty() ? 0 : columns.get(0).size();
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * @return the index of the first column with the given header text or -1 if there isn't one
+     */
+    public int getColumnIndex(String header) {
+        return headers.indexOf(header);
+    }
+
+    public List<String> getColumn(int index) {
+        return columns.get(index);
+    }
+
+    public List<String> getColumn(String header) {
+        return getColumn(getRequiredColumnIndex(header));
+    }
+
+    public List<String> getRow(int index) {
+        return columns.stream().map(column -> column.get(index)).collect(Collectors.toList());
+    }
+
+    public String getCell(int row, String header) {
+        return getColumn(header).get(row);
+    }
+
+    public int[] getIntColumn(String header) {
+        return getColumn(header).stream().mapToInt(value -> Integer.parseInt(toNumber(value, header))).toArray();
+    }
+
+    public long[] getLongColumn(String header) {
+        return getColumn(header).stream().mapToLong(value -> Long.parseLong(toNumber(value, header))).toArray();
+    }
+
+    // blank cells are returned as NaN
+    public double[] getDoubleColumn(String header) {
+        return getColumn(header).stream()
+                                .mapToDouble(value -> value.trim().isEmpty() ? Double.NaN : Double.parseDouble(toNumber(value, header)))
+                                .toArray();
+    }
+
+    /**
+     * @return one map per row keyed by header, only columns with a header are included
+     */
+    public List<Map<String, String>> toHash() {
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int row = 0; row < rowCount; row++) {
+            Map<String, String> rowHash = new LinkedHashMap<>();
+            for (int column = 0; column < Math.min(headers.size(), columns.size()); column++) {
+                rowHash.put(headers.get(column), columns.get(column).get(row));
+            }
+            rows.add(rowHash);
+        }
+        return rows;
+    }
+
+    private int getRequiredColumnIndex(String header) {
+        int index = getColumnIndex(header);
+        if (index < 0) throw new IllegalArgumentException(String.format("No column with header '%s' in %s", header, headers));
+        return index;
+    }
+
+    private String toNumber(String value, String header) {
+        String number = value.replaceAll("\\s", "");
+        if (number.isEmpty()) throw new NumberFormatException(String.format("Blank value in column '%s'", header));
+        if (number.indexOf(',') < 0) return number;
+        if (!GROUPED_NUMBER.matcher(number).matches()) {
+            throw new NumberFormatException(String.format("Unable to parse '%s' in column '%s' as a number", value, header));
+        }
+        return number.replace(",", "");
+    }
+}
@@ -1,21 +1,87 @@
 package com.lithium.mineraloil.selenium.elements;
 
 import lombok.experimental.Delegate;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
 import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class TableElement implements Element<TableElement> {
+    // defines the header and body rows of a table: the last thead row is the header, or the first
+    // body row if it only has th cells. Body rows are the rows in the tbody elements.
+    static final String TABLE_ROWS_JS =
+            "function cellText(cell) { return (cell.textContent || '').replace(/\\u00A0/g, ' ').trim(); }" +
+            "function tableRows(table) {" +
+            "  var header = null, body = [], i, j;" +
+            "  if (table.tHead && table.tHead.rows.length) header = table.tHead.rows[table.tHead.rows.length - 1];" +
+            "  for (i = 0; i < table.tBodies.length; i++) {" +
+            "    for (j = 0; j < table.tBodies[i].rows.length; j++) body.push(table.tBodies[i].rows[j]);" +
+            "  }" +
+            "  if (!header && body.length && body[0].querySelector('th') && !body[0].querySelector('td')) header = body.shift();" +
+            "  var headers = [];" +
+            "  if (header) for (i = 0; i < header.cells.length; i++) headers.push(cellText(header.cells[i]));" +
+            "  return {headers: headers, body: body};" +
+            "}";
+    private static final String EXTRACT_JS = TABLE_ROWS_JS +
+            "var table = arguments[0], previousEpoch = arguments[1];" +
+            "if (!table.__mineraloilEpoch) {" +
+            "  var epoch = {id: Math.random().toString(36).slice(2), count: 0};" +
+            "  new MutationObserver(function() { epoch.count++; })" +
+            "      .observe(table, {childList: true, subtree: true, characterData: true});" +
+            "  table.__mineraloilEpoch = epoch;" +
+            "}" +
+            "var currentEpoch = table.__mineraloilEpoch.id + ':' + table.__mineraloilEpoch.count;" +
+            "if (currentEpoch === previousEpoch) return {epoch: currentEpoch};" +
+            "var rows = tableRows(table), width = rows.headers.length, columns = [], i, j;" +
+            "for (i = 0; i < rows.body.length; i++) width = Math.max(width, rows.body[i].cells.length);" +
+            "for (j = 0; j < width; j++) columns.push([]);" +
+            "for (i = 0; i < rows.body.length; i++) {" +
+            "  for (j = 0; j < width; j++) {" +
+            "    var cell = rows.body[i].cells[j];" +
+            "    columns[j].push(cell ? cellText(cell) : '');" +
+            "  }" +
+            "}" +
+            "return {epoch: currentEpoch, headers: rows.headers, columns: columns};";
+    // returns the matching body rows along with their position among all the tr elements of the
+    // table, which is how a row element is relocated if its handle goes stale. The column is looked
+    // up by header in the same call so reordered columns are never matched by an old position.
+    private static final String FIND_ROWS_JS = TABLE_ROWS_JS +
+            "var table = arguments[0], header = arguments[1], type = arguments[2], value = arguments[3], all = arguments[4];" +
+            "var pattern = type === 'matches' ? new RegExp(value) : null;" +
+            "function matches(text) {" +
+            "  switch (type) {" +
+            "    case 'equalTo': return text === value;" +
+            "    case 'contains': return text.indexOf(value) >= 0;" +
+            "    case 'startsWith': return text.indexOf(value) === 0;" +
+            "    default: return pattern.test(text);" +
+            "  }" +
+            "}" +
+            "var sections = tableRows(table), column = sections.headers.indexOf(header);" +
+            "if (column < 0) return {headers: sections.headers};" +
+            "var rows = sections.body, allRows = table.getElementsByTagName('tr'), found = [];" +
+            "for (var i = 0; i < rows.length; i++) {" +
+            "  var cell = rows[i].cells[column];" +
+            "  if (cell && matches(cellText(cell))) {" +
+            "    found.push({row: rows[i], index: Array.prototype.indexOf.call(allRows, rows[i])});" +
+            "    if (!all) break;" +
+            "  }" +
+            "}" +
+            "return {rows: found};";
+
     private List<TableRowElement> rows;
     private TableRowElement header;
+    private TableData tableData;
+    private String tableDataEpoch;
 
     @Delegate
     private final ElementImpl<TableElement> elementImpl;
@@ -24,17 +90,18 @@ public class TableElement implements Element<TableElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private TableElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private TableElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<TableElement> toList() {
         List<TableElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new TableElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                    .withIframe(getIframeElement())
-                                                                                    .withHover(getHoverElement())
-                                                                                    .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new TableElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                            .withIframe(getIframeElement())
+                                                                                                            .withHover(getHoverElement())
+                                                                                                            .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
@@ -62,21 +129,80 @@ public class TableElement implements Element<TableElement> {
         return getRows().get(index);
     }
 
-    public List<Map<String, String>> getHash() {
-        Document doc = Jsoup.parse(this.getAttribute("outerHTML"), "UTF-8");
-        List<String> headerStrings = doc.select("thead > tr > td").stream()
-                                        .map(org.jsoup.nodes.Element::text)
-                                        .collect(Collectors.toList());
-        List<Map<String, String>> listHash = new ArrayList<>();
-        for(org.jsoup.nodes.Element row: doc.select("tbody > tr")) {
-            HashMap<String, String> rowHash = new HashMap<>();
-            Elements columns = row.select("td");
-            for(int i = 0; i < columns.size(); i++) {
-                rowHash.put(headerStrings.get(i), columns.eq(i).text());
+    /**
+     * Reads the header and body cells of the table in a single script call. The result is memoized
+     * and only read again once the table's contents change.
+     */
+    @SuppressWarnings("unchecked")
+    public TableData extract() {
+        return elementImpl.retry(SECONDS.toMillis(Waiter.INTERACT_WAIT_S), () -> {
+            Map<String, Object> result = (Map<String, Object>) elementImpl.driver.executeScript(EXTRACT_JS,
+                                                                                                 locateElement(),
+                                                                                                 tableDataEpoch);
+            if (result.containsKey("columns")) {
+                tableData = new TableData((List<String>) result.get("headers"), (List<List<String>>) result.get("columns"));
+                tableDataEpoch = (String) result.get("epoch");
             }
-            listHash.add(rowHash);
+            return tableData;
+        });
+    }
+
+    /**
+     * Streams the rows of a table that only renders the rows in view, scrolling it as rows are consumed.
+     * Rows are keyed by header and de-duplicated on the value of the key column, so the key column has
+     * to be unique: a row repeating the key of a recently seen row is skipped.
+     */
+    public Stream<Map<String, String>> streamRows(String keyColumn) {
+        TableRowIterator iterator = new TableRowIterator(elementImpl, keyColumn);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public TableRowElement findRow(String header, String value) {
+        return findRow(header, CellMatcher.equalTo(value));
+    }
+
+    /**
+     * Finds the first body row whose cell under the given header matches. The rows are searched in
+     * the browser and the returned row is bound to the matching tr so nothing else has to be read.
+     */
+    public TableRowElement findRow(String header, CellMatcher matcher) {
+        List<TableRowElement> rows = findRows(header, matcher, false);
+        if (rows.isEmpty()) {
+            throw new NoSuchElementException(String.format("Unable to find a row where '%s' %s in %s", header, matcher, getBy()));
+        }
+        return rows.get(0);
+    }
+
+    public List<TableRowElement> findRows(String header, String value) {
+        return findRows(header, CellMatcher.equalTo(value));
+    }
+
+    public List<TableRowElement> findRows(String header, CellMatcher matcher) {
+        return findRows(header, matcher, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TableRowElement> findRows(String header, CellMatcher matcher, boolean all) {
+        Map<String, Object> found = elementImpl.retry(SECONDS.toMillis(Waiter.INTERACT_WAIT_S), () ->
+                (Map<String, Object>) elementImpl.driver.executeScript(FIND_ROWS_JS,
+                                                                         locateElement(),
+                                                                         header,
+                                                                         matcher.getType(),
+                                                                         matcher.getValue(),
+                                                                         all));
+        if (!found.containsKey("rows")) {
+            throw new IllegalArgumentException(String.format("No column with header '%s' in %s", header, found.get("headers")));
         }
-        return listHash;
+        List<TableRowElement> rows = new ArrayList<>();
+        for (Map<String, Object> row : (List<Map<String, Object>>) found.get("rows")) {
+            int index = ((Number) row.get("index")).intValue();
+            rows.add(new TableRowElement(elementImpl.driver, By.tagName("tr"), index, (WebElement) row.get("row")).withParent(this));
+        }
+        return rows;
+    }
+
+    public List<Map<String, String>> getHash() {
+        return extract().toHash();
     }
 
 }
@@ -2,6 +2,7 @@ package com.lithium.mineraloil.selenium.elements;
 
 import lombok.experimental.Delegate;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,17 +18,18 @@ public class TableRowElement implements Element<TableRowElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private TableRowElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    TableRowElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<TableRowElement> toList() {
         List<TableRowElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new TableRowElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                       .withIframe(getIframeElement())
-                                                                                       .withHover(getHoverElement())
-                                                                                       .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new TableRowElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                               .withIframe(getIframeElement())
+                                                                                                               .withHover(getHoverElement())
+                                                                                                               .withAutoScrollIntoView(isAutoScrollIntoView()));
         });
         return elements;
     }
@@ -0,0 +1,112 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Walks the rows of a table that only renders the rows in view (virtualized or infinite scrolling grids).
+ *
+ * Each batch scrolls the last rendered row to the end of the view so the grid renders the next rows, then
+ * reads whatever rows are rendered. Scrolling and reading happen in one script so no row handle is kept
+ * between batches for the grid to recycle. Batches are only fetched when the consumer asks for more rows,
+ * and only the keys of recently seen rows are kept to drop the overlap between batches, so memory stays
+ * bounded however long the table is. Iteration ends once scrolling stops producing new rows.
+ *
+ * Rows are told apart by their key column alone, so a row whose key repeats one of the recently seen
+ * rows is dropped.
+ */
+class TableRowIterator implements Iterator<Map<String, String>> {
+    private static final int MAX_REMEMBERED_KEYS = 1000;
+    private static final int MAX_IDLE_BATCHES = 3;
+    // scrolls the last rendered row into view when asked, then waits two animation frames
+    // so rows rendered in response to the scroll are in the DOM
+    private static final String READ_ROWS_JS = TableElement.TABLE_ROWS_JS +
+            "var table = arguments[0], scroll = arguments[1], done = arguments[arguments.length - 1];" +
+            "if (scroll) {" +
+            "  var rendered = tableRows(table).body;" +
+            "  if (rendered.length) rendered[rendered.length - 1].scrollIntoView(false);" +
+            "}" +
+            "requestAnimationFrame(function() { requestAnimationFrame(function() {" +
+            "  var rows = tableRows(table), cells = [];" +
+            "  rows.body.forEach(function(row) {" +
+            "    var values = [];" +
+            "    for (var i = 0; i < row.cells.length; i++) values.push(cellText(row.cells[i]));" +
+            "    cells.push(values);" +
+            "  });" +
+            "  done({headers: rows.headers, rows: cells});" +
+            "}); });";
+
+    private final ElementImpl<TableElement> table;
+    private final String keyColumn;
+    private final Deque<Map<String, String>> buffer = new ArrayDeque<>();
+    private final Set<String> recentKeys = new LinkedHashSet<>();
+    private boolean scroll;
+    private int idleBatches;
+    private boolean exhausted;
+
+    TableRowIterator(ElementImpl<TableElement> table, String keyColumn) {
+        this.table = table;
+        this.keyColumn = keyColumn;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (buffer.isEmpty() && !exhausted) {
+            fetchNextBatch();
+        }
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public Map<String, String> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return buffer.removeFirst();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchNextBatch() {
+        Map<String, Object> batch = table.retry(SECONDS.toMillis(Waiter.INTERACT_WAIT_S), () ->
+                (Map<String, Object>) table.driver.executeAsyncScript(READ_ROWS_JS, table.locateElement(), scroll));
+        List<String> headers = (List<String>) batch.get("headers");
+        int keyIndex = headers.indexOf(keyColumn);
+        if (keyIndex < 0) {
+            throw new IllegalArgumentException(String.format("No column with header '%s' in %s", keyColumn, headers));
+        }
+
+        List<List<String>> rows = (List<List<String>>) batch.get("rows");
+        int added = 0;
+        for (List<String> cells : rows) {
+            if (keyIndex >= cells.size() || !remember(cells.get(keyIndex))) continue;
+
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < Math.min(headers.size(), cells.size()); i++) {
+                row.put(headers.get(i), cells.get(i));
+            }
+            buffer.addLast(row);
+            added++;
+        }
+
+        scroll = true;
+        idleBatches = added == 0 ? idleBatches + 1 : 0;
+        exhausted = rows.isEmpty() || idleBatches >= MAX_IDLE_BATCHES;
+    }
+
+    private boolean remember(String key) {
+        if (!recentKeys.add(key)) return false;
+        if (recentKeys.size() > MAX_REMEMBERED_KEYS) {
+            Iterator<String> oldest = recentKeys.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return true;
+    }
+}
@@ -8,16 +8,38 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
 
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Slf4j
 public class TextElement implements Element<TextElement> {
+    // sets the value the way a framework listening for input events expects: through the prototype's setter
+    // so an instance level override (like react's value tracker) still sees the change. Returns the resulting
+    // value or null if the element isn't a text field.
+    private static final String SET_VALUE_JS =
+            "var el = arguments[0], value = arguments[1];" +
+            "if (el.focus) el.focus();" +
+            "if (el.isContentEditable) {" +
+            "  el.textContent = value;" +
+            "} else if (el instanceof HTMLInputElement || el instanceof HTMLTextAreaElement) {" +
+            "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;" +
+            "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);" +
+            "} else {" +
+            "  return null;" +
+            "}" +
+            "el.dispatchEvent(new Event('input', {bubbles: true}));" +
+            "el.dispatchEvent(new Event('change', {bubbles: true}));" +
+            "return el.isContentEditable ? el.textContent : el.value;";
+    private static final String VALUE_JS = "var el = arguments[0]; return el.isContentEditable ? el.textContent : el.value;";
+    private static final int CHUNK_SIZE = 1000;
+
+    private InputStrategy inputStrategy;
 
     @Delegate
     private final ElementImpl<TextElement> elementImpl;
@@ -26,17 +48,19 @@ public class TextElement implements Element<TextElement> {
         elementImpl = new ElementImpl(driver, this, by);
     }
 
-    private TextElement(Driver driver, By by, int index) {
-        elementImpl = new ElementImpl(driver, this, by, index);
+    private TextElement(Driver driver, By by, int index, WebElement element) {
+        elementImpl = new ElementImpl(driver, this, by, index, element);
     }
 
     public List<TextElement> toList() {
         List<TextElement> elements = new ArrayList<>();
-        IntStream.range(0, locateElements().size()).forEach(index -> {
-            elements.add(new TextElement(elementImpl.driver, elementImpl.by, index).withParent(getParentElement())
-                                                                                   .withIframe(getIframeElement())
-                                                                                   .withHover(getHoverElement())
-                                                                                   .withAutoScrollIntoView(isAutoScrollIntoView()));
+        List<WebElement> webElements = locateElements();
+        IntStream.range(0, webElements.size()).forEach(index -> {
+            elements.add(new TextElement(elementImpl.driver, elementImpl.by, index, webElements.get(index)).withParent(getParentElement())
+                                                                                                           .withIframe(getIframeElement())
+                                                                                                           .withHover(getHoverElement())
+                                                                                                           .withAutoScrollIntoView(isAutoScrollIntoView())
+                                                                                                           .withInputStrategy(inputStrategy));
         });
         return elements;
     }
@@ -48,7 +72,20 @@ public class TextElement implements Element<TextElement> {
     }
 
     /**
-     * Clears out the value of the input field first then types specified text.
+     * Overrides the driver's input strategy for this element. Pass null to go back to the driver's.
+     */
+    public TextElement withInputStrategy(InputStrategy inputStrategy) {
+        this.inputStrategy = inputStrategy;
+        return this;
+    }
+
+    public InputStrategy getInputStrategy() {
+        return inputStrategy == null ? elementImpl.driver.getInputStrategy() : inputStrategy;
+    }
+
+    /**
+     * Clears out the value of the input field first then types specified text using the element's input strategy.
+     * The faster strategies verify the resulting value and fall back to keystrokes when it doesn't match.
      *
      * @param text the text to put into the text area
      */
@@ -56,12 +93,39 @@ public class TextElement implements Element<TextElement> {
         autoHover();
         if (text == null) return;
         waitUntilEnabled();
+        InputStrategy strategy = getInputStrategy();
+        // only the length is recorded since the text could be a password
+        Consumer<WebElement> recordAction = elementImpl.driver.recordActionOnce("type", getBy(), text.length() + " chars");
         runWithRetries(() -> {
-                           elementImpl.locateElement().clear();
-                           elementImpl.locateElement().sendKeys(text);
+                           WebElement element = elementImpl.locateElement();
+                           recordAction.accept(element);
+                           if (strategy == InputStrategy.NATIVE_SETTER && text.equals(elementImpl.driver.executeScript(SET_VALUE_JS, element, text))) {
+                               return;
+                           }
+                           if (strategy == InputStrategy.CHUNKED && typeInChunks(element, text)) {
+                               return;
+                           }
+                           if (strategy != InputStrategy.KEYSTROKES) {
+                               log.debug(String.format("%s input didn't produce the expected value for %s, typing it instead", strategy, getBy()));
+                           }
+                           element.clear();
+                           element.sendKeys(text);
                        });
     }
 
+    private boolean typeInChunks(WebElement element, String text) {
+        element.clear();
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(start + CHUNK_SIZE, text.length());
+            // don't split a surrogate pair across two commands
+            if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) end--;
+            element.sendKeys(text.substring(start, end));
+            start = end;
+        }
+        return text.equals(elementImpl.driver.executeScript(VALUE_JS, element));
+    }
+
     /**
      * Only sends the given keystroke
      *
@@ -135,6 +199,7 @@ public class TextElement implements Element<TextElement> {
     }
 
     public boolean isEmpty() {
+        long start = System.nanoTime();
         try {
             Waiter.await()
                   .atMost(1, SECONDS)
@@ -143,23 +208,19 @@ public class TextElement implements Element<TextElement> {
             return true;
         } catch (ConditionTimeoutException e) {
             return false;
+        } finally {
+            elementImpl.driver.recordWait("empty", start);
         }
     }
 
     private void runWithRetries(Runnable runnable) {
-        int retryCount = 0;
-        long expireTime = Instant.now().toEpochMilli() + SECONDS.toMillis(Waiter.DISPLAY_WAIT_S);
-        WebDriverException exception = null;
-        while (Instant.now().toEpochMilli() < expireTime && retryCount < 2) {
-            try {
+        try {
+            elementImpl.retry(SECONDS.toMillis(Waiter.DISPLAY_WAIT_S), () -> {
                 runnable.run();
-                return;
-            } catch (WebDriverException e) {
-                retryCount++;
-                exception = e;
-            }
+                return null;
+            });
+        } catch (WebDriverException e) {
+            throw new NoSuchElementException("Unable to locate element: " + getBy(), e);
         }
-        throw new NoSuchElementException("Unable to locate element: " + getBy(), exception);
-
     }
 }
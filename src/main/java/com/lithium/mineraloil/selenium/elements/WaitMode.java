@@ -0,0 +1,8 @@
+package com.lithium.mineraloil.selenium.elements;
+
+public enum WaitMode {
+    // evaluate the condition from the client every poll interval
+    POLLING,
+    // watch the DOM from inside the page and return as soon as the condition holds
+    BROWSER
+}
@@ -4,16 +4,24 @@ import org.awaitility.Awaitility;
 import org.awaitility.core.ConditionFactory;
 import org.openqa.selenium.WebDriverException;
 
+import java.util.concurrent.Callable;
+
 class Waiter {
     public static final int STALE_ELEMENT_WAIT_MS = 500;
     public static final int INTERACT_WAIT_S = 5;
     public static final int DISPLAY_WAIT_S = 60;
-    private static ConditionFactory conditionFactory;
+    // condition factories are immutable, so one can be shared by every thread
+    private static final ConditionFactory conditionFactory = Awaitility.await().ignoreExceptionsInstanceOf(WebDriverException.class);
 
     public static ConditionFactory await() {
-        if (conditionFactory == null) {
-            conditionFactory = Awaitility.await().ignoreExceptionsInstanceOf(WebDriverException.class);
-        }
         return conditionFactory;
     }
+
+    // checks the driver's abort conditions before each evaluation of the condition
+    public static Callable<Boolean> abortable(Driver driver, Callable<Boolean> condition) {
+        return () -> {
+            driver.checkAbortConditions();
+            return condition.call();
+        };
+    }
 }
@@ -1,5 +1,6 @@
 package com.lithium.mineraloil.selenium.elements;
 
+import com.lithium.mineraloil.selenium.metrics.InstrumentedWebDriver;
 import lombok.NonNull;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Cookie;
@@ -9,6 +10,7 @@ import org.openqa.selenium.NoAlertPresentException;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.WebDriver.Navigation;
 import org.openqa.selenium.WebDriver.TargetLocator;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -20,9 +22,11 @@ import java.util.Set;
 
 class WebdriverActions {
     private WebDriver driver;
+    private FrameTracker frameTracker;
 
-    public WebdriverActions(@NonNull WebDriver driver) {
+    public WebdriverActions(@NonNull WebDriver driver, @NonNull FrameTracker frameTracker) {
         this.driver = driver;
+        this.frameTracker = frameTracker;
     }
 
     public boolean isAlertPresent() {
@@ -95,14 +99,21 @@ class WebdriverActions {
     }
 
     public TargetLocator switchTo() {
+        // we can't tell what the caller is going to switch to so the next element lookup resets focus
+        frameTracker.invalidate();
         return driver.switchTo();
     }
 
+    public WebElement getActiveElement() {
+        return driver.switchTo().activeElement();
+    }
+
     public Actions getActions() {
         return new Actions(driver);
     }
 
     public Navigation navigate() {
+        frameTracker.invalidate();
         return driver.navigate();
     }
 
@@ -118,17 +129,25 @@ class WebdriverActions {
         return ((JavascriptExecutor) driver).executeScript(script, args);
     }
 
+    public Object executeAsyncScript(String script, Object... args) {
+        return ((JavascriptExecutor) driver).executeAsyncScript(script, args);
+    }
+
     public File takeScreenshot() {
         return ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
     }
 
+    public byte[] takeScreenshotAsBytes() {
+        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+    }
+
     public WebDriver.Window getWindow() {
         return driver.manage().window();
     }
 
     public void maximize() {
         // chrome doesn't actually always maximize so implement workaround
-        if (driver instanceof ChromeDriver) {
+        if (InstrumentedWebDriver.unwrap(driver) instanceof ChromeDriver) {
             java.awt.Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
             org.openqa.selenium.Point position = new org.openqa.selenium.Point(0, 0);
             driver.manage().window().maximize();
@@ -0,0 +1,9 @@
+package com.lithium.mineraloil.selenium.exceptions;
+
+public class ActionBatchException extends RuntimeException {
+    private static final long serialVersionUID = 6021348817705932415L;
+
+    public ActionBatchException(String errorMessage) {
+        super(errorMessage);
+    }
+}
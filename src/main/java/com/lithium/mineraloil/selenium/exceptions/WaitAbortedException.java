@@ -0,0 +1,9 @@
+package com.lithium.mineraloil.selenium.exceptions;
+
+public class WaitAbortedException extends RuntimeException {
+    private static final long serialVersionUID = 3186520931944201478L;
+
+    public WaitAbortedException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -0,0 +1,83 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where the time of a test run goes, recorded while a Driver has metrics turned on:
+ *
+ * - commands: every WebDriver and WebElement call by command (findElement, element.click, switchTo.frame, ...)
+ * - locators: the time element operations took by the element's locator, retries included
+ * - retries: how often an element operation was retried by the element's locator
+ * - waits: the time spent waiting for elements by what was waited for (DISPLAYED, ENABLED, hover, ...)
+ *
+ * The same instance can be shared by several Drivers to collect a whole suite. Exporters added with
+ * addExporter() write everything out on export().
+ */
+public class CommandMetrics {
+    private final Map<String, Histogram> commands = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> locators = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> waits = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+    private final List<MetricsExporter> exporters = new CopyOnWriteArrayList<>();
+
+    public void recordCommand(String command, long nanos) {
+        commands.computeIfAbsent(command, key -> new Histogram()).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLocator(String locator, long nanos) {
+        locators.computeIfAbsent(locator, key -> new Histogram()).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWait(String condition, long nanos) {
+        waits.computeIfAbsent(condition, key -> new Histogram()).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetry(String locator) {
+        retries.computeIfAbsent(locator, key -> new LongAdder()).increment();
+    }
+
+    public Map<String, Histogram.Snapshot> getCommands() {
+        return snapshot(commands);
+    }
+
+    public Map<String, Histogram.Snapshot> getLocators() {
+        return snapshot(locators);
+    }
+
+    public Map<String, Histogram.Snapshot> getWaits() {
+        return snapshot(waits);
+    }
+
+    public Map<String, Long> getRetries() {
+        Map<String, Long> result = new TreeMap<>();
+        retries.forEach((locator, count) -> result.put(locator, count.sum()));
+        return result;
+    }
+
+    public void addExporter(MetricsExporter exporter) {
+        exporters.add(exporter);
+    }
+
+    public void export() {
+        exporters.forEach(exporter -> exporter.export(this));
+    }
+
+    public void reset() {
+        commands.clear();
+        locators.clear();
+        waits.clear();
+        retries.clear();
+    }
+
+    private static Map<String, Histogram.Snapshot> snapshot(Map<String, Histogram> histograms) {
+        Map<String, Histogram.Snapshot> result = new TreeMap<>();
+        histograms.forEach((key, histogram) -> result.put(key, histogram.snapshot()));
+        return result;
+    }
+}
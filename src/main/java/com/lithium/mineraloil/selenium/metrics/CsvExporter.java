@@ -0,0 +1,55 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Writes the metrics to a csv file, one row per command, locator, wait and retried locator, times in microseconds.
+ */
+@Slf4j
+public class CsvExporter implements MetricsExporter {
+    private static final String HEADER = "category,key,count,mean_us,p50_us,p95_us,p99_us,max_us,total_us\n";
+
+    private final File file;
+
+    public CsvExporter(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void export(CommandMetrics metrics) {
+        StringBuilder csv = new StringBuilder(HEADER);
+        append(csv, "command", metrics.getCommands());
+        append(csv, "locator", metrics.getLocators());
+        append(csv, "wait", metrics.getWaits());
+        metrics.getRetries().forEach((locator, count) -> csv.append(String.format("retry,%s,%s,,,,,,\n", quote(locator), count)));
+        try {
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            Files.write(file.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Unable to write metrics to " + file.getAbsolutePath() + ": " + e.toString());
+        }
+    }
+
+    private static void append(StringBuilder csv, String category, Map<String, Histogram.Snapshot> snapshots) {
+        snapshots.forEach((key, snapshot) -> csv.append(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s\n",
+                                                                      category,
+                                                                      quote(key),
+                                                                      snapshot.getCount(),
+                                                                      snapshot.getMean(),
+                                                                      snapshot.getP50(),
+                                                                      snapshot.getP95(),
+                                                                      snapshot.getP99(),
+                                                                      snapshot.getMax(),
+                                                                      snapshot.getTotal())));
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
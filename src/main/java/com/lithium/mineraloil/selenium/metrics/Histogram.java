@@ -0,0 +1,100 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+import lombok.Value;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram that many threads can record into without locking.
+ *
+ * Values are kept in microseconds in log-linear buckets the way HdrHistogram does it: exact below 32us and
+ * 16 buckets per power of two above, so a percentile is within about 6% of the recorded value.
+ */
+public class Histogram {
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // a bucket range for each power of two from 32 up to the largest long
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - 5) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long duration, TimeUnit unit) {
+        long micros = Math.max(0, unit.toMicros(duration));
+        counts.incrementAndGet(bucketOf(micros));
+        count.increment();
+        total.add(micros);
+        long currentMax;
+        while (micros > (currentMax = max.get()) && !max.compareAndSet(currentMax, micros)) {
+            // another thread raised the max, check against the new value
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the value in microseconds that the given fraction (e.g. 0.95) of the recorded values are at or below
+     */
+    public long getPercentile(double fraction) {
+        long recorded = count.sum();
+        if (recorded == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * recorded));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) return Math.min(highestValueOf(bucket), max.get());
+        }
+        return max.get();
+    }
+
+    public Snapshot snapshot() {
+        long recorded = count.sum();
+        return new Snapshot(recorded,
+                            recorded == 0 ? 0 : total.sum() / recorded,
+                            getPercentile(0.5),
+                            getPercentile(0.95),
+                            getPercentile(0.99),
+                            max.get(),
+                            total.sum());
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) return (int) micros;
+        int highestBit = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        // the four bits below the highest one pick the bucket within its power of two
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (highestBit - 5) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) return bucket;
+        int highestBit = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 5;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = highestBit - SUB_BUCKET_BITS;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * The recorded values at one point in time, in microseconds.
+     */
+    @Value
+    public static class Snapshot {
+        long count;
+        long mean;
+        long p50;
+        long p95;
+        long p99;
+        long max;
+        long total;
+    }
+}
@@ -0,0 +1,128 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.logging.Logs;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decorates a WebDriver so every command it sends is timed into {@link CommandMetrics}.
+ *
+ * The decorator implements the same interfaces as the driver (JavascriptExecutor, TakesScreenshot, ...) and
+ * decorates what the driver hands out too: elements, switchTo(), manage() and so on. Commands are keyed by the
+ * method, prefixed with where it was called on, e.g. findElement, element.click or switchTo.frame.
+ * Code that needs the concrete driver class has to unwrap() it first.
+ */
+public class InstrumentedWebDriver {
+    private InstrumentedWebDriver() {
+    }
+
+    public static WebDriver wrap(WebDriver driver, CommandMetrics metrics) {
+        return (WebDriver) decorate(driver, "", metrics, null, WrapsDriver.class);
+    }
+
+    public static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver && Proxy.isProxyClass(driver.getClass())) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver;
+    }
+
+    private static Object decorate(Object target, String prefix, CommandMetrics metrics, Object driverProxy, Class<?> wrapper) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>(ClassUtils.getAllInterfaces(target.getClass()));
+        if (wrapper != null) interfaces.add(wrapper);
+        interfaces.removeIf(type -> !Modifier.isPublic(type.getModifiers()));
+        Handler handler = new Handler(target, prefix, metrics, driverProxy);
+        Object proxy = Proxy.newProxyInstance(InstrumentedWebDriver.class.getClassLoader(), interfaces.toArray(new Class<?>[0]), handler);
+        if (handler.driverProxy == null) handler.driverProxy = proxy;
+        return proxy;
+    }
+
+    private static class Handler implements InvocationHandler {
+        private final Object target;
+        private final String prefix;
+        private final CommandMetrics metrics;
+        private Object driverProxy;
+
+        private Handler(Object target, String prefix, CommandMetrics metrics, Object driverProxy) {
+            this.target = target;
+            this.prefix = prefix;
+            this.metrics = metrics;
+            this.driverProxy = driverProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getWrappedDriver") && target instanceof WebDriver) return target;
+            if (name.equals("getWrappedElement") && method.getParameterCount() == 0) return target;
+            if (method.getDeclaringClass() == Object.class) {
+                if (name.equals("equals")) return proxy == args[0] || target.equals(unwrapArgument(args[0]));
+                return method.invoke(target, args);
+            }
+
+            Object[] unwrapped = unwrapArguments(args);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(target, unwrapped);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                metrics.recordCommand(prefix + name, System.nanoTime() - start);
+            }
+            return decorateResult(method, result);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object decorateResult(Method method, Object result) {
+            if (result == null) return null;
+            if (target instanceof WebDriver && result == target) return driverProxy;
+            if (result instanceof WebDriver && driverProxy != null && result == unwrap((WebDriver) driverProxy)) return driverProxy;
+            if (result instanceof WebElement) return decorate(result, "element.", metrics, driverProxy, WrapsElement.class);
+            if (result instanceof List && !((List<Object>) result).isEmpty() && ((List<Object>) result).stream().allMatch(WebElement.class::isInstance)) {
+                return ((List<Object>) result).stream()
+                                              .map(element -> decorate(element, "element.", metrics, driverProxy, WrapsElement.class))
+                                              .collect(Collectors.toList());
+            }
+            // switchTo(), manage(), navigate() and what they return
+            Class<?> type = method.getReturnType();
+            if (type.getEnclosingClass() == WebDriver.class || type == Logs.class) {
+                return decorate(result, prefix + method.getName() + ".", metrics, driverProxy, null);
+            }
+            return result;
+        }
+
+        private static Object[] unwrapArguments(Object[] args) {
+            if (args == null) return null;
+            Object[] unwrapped = (Object[]) Array.newInstance(args.getClass().getComponentType(), args.length);
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] instanceof Object[]) {
+                    // varargs such as the arguments of executeScript
+                    unwrapped[i] = unwrapArguments((Object[]) args[i]);
+                } else {
+                    unwrapped[i] = unwrapArgument(args[i]);
+                }
+            }
+            return unwrapped;
+        }
+
+        private static Object unwrapArgument(Object arg) {
+            if (arg == null || !Proxy.isProxyClass(arg.getClass()) || !(Proxy.getInvocationHandler(arg) instanceof Handler)) return arg;
+            return ((Handler) Proxy.getInvocationHandler(arg)).target;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the metrics as an MBean (com.lithium.mineraloil:type=CommandMetrics,name=...) so they can be
+ * watched live from jconsole or a JMX scraper. The MBean is registered on the first export and reads the
+ * metrics whenever it's queried, with attributes like "command.findElement.p95" in microseconds.
+ */
+@Slf4j
+public class JmxExporter implements MetricsExporter, DynamicMBean {
+    private final ObjectName objectName;
+    private volatile CommandMetrics metrics;
+
+    public JmxExporter(String name) {
+        try {
+            objectName = new ObjectName("com.lithium.mineraloil:type=CommandMetrics,name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid metrics name: " + name, e);
+        }
+    }
+
+    @Override
+    public synchronized void export(CommandMetrics metrics) {
+        this.metrics = metrics;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(objectName)) return;
+        try {
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.error("Unable to register metrics MBean " + objectName + ": " + e.toString());
+        }
+    }
+
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            log.debug("Metrics MBean " + objectName + " wasn't registered");
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Long value = getAttributes().get(attribute);
+        if (value == null) throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Long> values = getAttributes();
+        AttributeList result = new AttributeList();
+        for (String attribute : attributes) {
+            if (values.containsKey(attribute)) result.add(new Attribute(attribute, values.get(attribute)));
+        }
+        return result;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        // the MBean declares no operations
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        getAttributes().keySet().forEach(name -> attributes.add(new MBeanAttributeInfo(name, Long.class.getName(), name, true, false, false)));
+        return new MBeanInfo(getClass().getName(), "Mineraloil command metrics", attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+
+    private Map<String, Long> getAttributes() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        CommandMetrics current = metrics;
+        if (current == null) return values;
+        addSnapshots(values, "command", current.getCommands());
+        addSnapshots(values, "locator", current.getLocators());
+        addSnapshots(values, "wait", current.getWaits());
+        current.getRetries().forEach((locator, count) -> values.put("retry." + locator, count));
+        return values;
+    }
+
+    private static void addSnapshots(Map<String, Long> values, String category, Map<String, Histogram.Snapshot> snapshots) {
+        snapshots.forEach((key, snapshot) -> {
+            String prefix = category + "." + key + ".";
+            values.put(prefix + "count", snapshot.getCount());
+            values.put(prefix + "p50", snapshot.getP50());
+            values.put(prefix + "p95", snapshot.getP95());
+            values.put(prefix + "p99", snapshot.getP99());
+            values.put(prefix + "max", snapshot.getMax());
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+/**
+ * Writes out the metrics collected so far, see {@link CsvExporter}, {@link PrometheusExporter} and {@link JmxExporter}.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+    void export(CommandMetrics metrics);
+}
@@ -0,0 +1,63 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * Writes the metrics in the Prometheus text format, e.g. for the node exporter's textfile collector. The file
+ * is replaced in one move so a scrape never sees it half written.
+ */
+@Slf4j
+public class PrometheusExporter implements MetricsExporter {
+    private final File file;
+
+    public PrometheusExporter(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void export(CommandMetrics metrics) {
+        StringBuilder text = new StringBuilder();
+        appendSummary(text, "mineraloil_command_duration_seconds", "command", metrics.getCommands());
+        appendSummary(text, "mineraloil_locator_duration_seconds", "locator", metrics.getLocators());
+        appendSummary(text, "mineraloil_wait_duration_seconds", "condition", metrics.getWaits());
+        text.append("# TYPE mineraloil_retries_total counter\n");
+        metrics.getRetries().forEach((locator, count) -> text.append(String.format("mineraloil_retries_total{locator=\"%s\"} %s\n", escape(locator), count)));
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            directory.mkdirs();
+            File temporary = new File(directory, file.getName() + ".tmp");
+            Files.write(temporary.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Unable to write metrics to " + file.getAbsolutePath() + ": " + e.toString());
+        }
+    }
+
+    private static void appendSummary(StringBuilder text, String name, String label, Map<String, Histogram.Snapshot> snapshots) {
+        text.append(String.format("# TYPE %s summary\n", name));
+        snapshots.forEach((key, snapshot) -> {
+            String labelValue = escape(key);
+            text.append(String.format("%s{%s=\"%s\",quantile=\"0.5\"} %s\n", name, label, labelValue, seconds(snapshot.getP50())));
+            text.append(String.format("%s{%s=\"%s\",quantile=\"0.95\"} %s\n", name, label, labelValue, seconds(snapshot.getP95())));
+            text.append(String.format("%s{%s=\"%s\",quantile=\"0.99\"} %s\n", name, label, labelValue, seconds(snapshot.getP99())));
+            text.append(String.format("%s{%s=\"%s\",quantile=\"1\"} %s\n", name, label, labelValue, seconds(snapshot.getMax())));
+            text.append(String.format("%s_sum{%s=\"%s\"} %s\n", name, label, labelValue, seconds(snapshot.getTotal())));
+            text.append(String.format("%s_count{%s=\"%s\"} %s\n", name, label, labelValue, snapshot.getCount()));
+        });
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1e6);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
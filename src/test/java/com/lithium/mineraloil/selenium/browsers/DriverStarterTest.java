@@ -0,0 +1,35 @@
+package com.lithium.mineraloil.selenium.browsers;
+
+import org.junit.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DriverStarterTest {
+
+    @Test
+    public void failedAttemptIsRetriedRightAway() {
+        WebDriver fakeDriver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                  new Class[]{WebDriver.class},
+                                                                  (proxy, method, args) -> null);
+        AtomicInteger calls = new AtomicInteger();
+
+        long start = System.currentTimeMillis();
+        WebDriver driver = DriverStarter.start("fake", () -> {
+            if (calls.incrementAndGet() == 1) throw new SessionNotCreatedException("grid is busy");
+            return fakeDriver;
+        });
+
+        assertThat(driver).isSameAs(fakeDriver);
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+        List<DriverStarter.Attempt> attempts = DriverStarter.getAttempts();
+        assertThat(attempts.get(attempts.size() - 2).isSucceeded()).isFalse();
+        assertThat(attempts.get(attempts.size() - 1).isSucceeded()).isTrue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.lithium.mineraloil.selenium.browsers;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class PooledHttpClientFactoryTest {
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private PooledHttpClientFactory factory;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/wd/hub/status", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"value\":{\"ready\":true}}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/wd/hub/hung", exchange -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        factory = new PooledHttpClientFactory();
+    }
+
+    @After
+    public void tearDown() {
+        factory.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void connectionIsKeptAliveBetweenCommands() throws IOException {
+        HttpClient client = factory.createClient(getUrl());
+        for (int i = 0; i < 3; i++) {
+            HttpResponse response = client.execute(new HttpRequest(HttpMethod.GET, "/status"));
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentString()).contains("ready");
+        }
+        assertThat(clientPorts).hasSize(1);
+        assertThat(factory.getMetrics().getRequests()).isEqualTo(3);
+        assertThat(factory.getMetrics().getAvailableConnections()).isEqualTo(1);
+    }
+
+    @Test
+    public void commandOverItsDeadlineIsAborted() throws IOException {
+        factory.setCommandTimeout(300, TimeUnit.MILLISECONDS);
+        long start = System.currentTimeMillis();
+        try {
+            factory.createClient(getUrl()).execute(new HttpRequest(HttpMethod.GET, "/hung"));
+            fail("command should have timed out");
+        } catch (IOException e) {
+            assertThat(e).hasMessageContaining("timed out after 300ms");
+        }
+        assertThat(System.currentTimeMillis() - start).isLessThan(3000);
+        assertThat(factory.getMetrics().getTimeouts()).isEqualTo(1);
+    }
+
+    private URL getUrl() throws IOException {
+        return new URL(String.format("http://127.0.0.1:%s/wd/hub", server.getAddress().getPort()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.lithium.mineraloil.selenium.exceptions.ActionBatchException;
+import com.lithium.mineraloil.selenium.helpers.BaseTest;
+import org.junit.Test;
+import org.openqa.selenium.By;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class ActionBatchTest extends BaseTest {
+
+    @Test
+    public void stepsRunInOneBatch() {
+        TextElement payload = driver.createTextElement(By.id("payload"));
+        CheckboxElement yes = driver.createBaseElement(By.id("checkboxes")).createCheckboxElement(By.name("Yes"));
+        SelectListElement fruit = driver.createSelectListElement(By.id("fruit"));
+
+        driver.batch()
+              .type(payload, "batched")
+              .check(yes)
+              .selectByValue(fruit, "plum")
+              .run();
+
+        assertThat(payload.getAttribute("value")).isEqualTo("batched");
+        assertThat(payload.getAttribute("data-input")).isEqualTo("7");
+        assertThat(yes.isChecked()).isTrue();
+        assertThat(fruit.getSelectedOption()).isEqualToIgnoringCase("plum");
+    }
+
+    @Test
+    public void failedStepNamesItsLocator() {
+        SelectListElement fruit = driver.createSelectListElement(By.id("fruit"));
+        try {
+            driver.batch()
+                  .type(driver.createTextElement(By.id("payload")), "first")
+                  .selectByValue(fruit, "mango")
+                  .run();
+            fail("batch should have failed");
+        } catch (ActionBatchException e) {
+            assertThat(e).hasMessageContaining("Step 2 of 2").hasMessageContaining("By.id: fruit").hasMessageContaining("mango");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ArtifactStore store;
+
+    @Before
+    public void setUp() {
+        store = new ArtifactStore(new ArtifactWriter(), folder.getRoot());
+    }
+
+    @Test
+    public void namesDontCollide() {
+        assertThat(store.newFile("a/Test/method", ".png")).isNotEqualTo(store.newFile("a/Test/method", ".png"));
+    }
+
+    @Test
+    public void htmlIsGzipped() throws IOException {
+        File file = store.newFile("a/Test/method", ".html");
+        store.store(file, "a.Test.method", "<html></html>".getBytes(StandardCharsets.UTF_8));
+        store.flush();
+        assertThat(file.getName()).endsWith(".html.gz");
+        try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            assertThat(IOUtils.toString(in, StandardCharsets.UTF_8)).isEqualTo("<html></html>");
+        }
+    }
+
+    @Test
+    public void concurrentWritesKeepEveryArtifact() throws Exception {
+        // more than the writer queues, so callers write some of them on their own threads
+        int threads = 4, perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    store.store(store.newFile("a/Test/method", ".png"), "a.Test.method", new byte[]{(byte) thread, (byte) i});
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        store.flush();
+
+        assertThat(FileUtils.readLines(new File(folder.getRoot(), ArtifactStore.INDEX_FILE), StandardCharsets.UTF_8)).hasSize(threads * perThread);
+        assertThat(FileUtils.listFiles(new File(folder.getRoot(), "a/Test"), null, false)).hasSize(threads * perThread);
+    }
+
+    @Test
+    public void identicalPayloadsAreStoredOnce() throws IOException {
+        File first = store.newFile("a/Test/first", ".png");
+        File second = store.newFile("a/Test/second", ".png");
+        store.store(first, "a.Test.first", new byte[]{1, 2, 3});
+        store.store(second, "a.Test.second", new byte[]{1, 2, 3});
+        store.flush();
+        assertThat(first).exists();
+        assertThat(second).doesNotExist();
+
+        List<String> index = FileUtils.readLines(new File(folder.getRoot(), ArtifactStore.INDEX_FILE), StandardCharsets.UTF_8);
+        assertThat(index).hasSize(2);
+        assertThat(index.get(1)).contains("a.Test.second").endsWith(first.getName());
+    }
+
+    @Test
+    public void oldestArtifactsAreEvictedOverBudget() {
+        store.setMaxBytes(2500);
+        File[] files = new File[3];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = store.newFile("a/Test/method", ".png");
+            byte[] content = new byte[1000];
+            content[0] = (byte) i;
+            store.store(files[i], "a.Test.method", content);
+        }
+        store.flush();
+        assertThat(files[0]).doesNotExist();
+        assertThat(files[1]).exists();
+        assertThat(files[2]).exists();
+    }
+}
@@ -0,0 +1,80 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactWriterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ArtifactWriter writer = new ArtifactWriter();
+
+    @Test
+    public void flushWaitsForFilesToBeWritten() throws IOException {
+        File file = new File(folder.getRoot(), "nested/dir/page.html");
+        writer.execute(() -> {
+            try {
+                ArtifactWriter.writeFile(file, "<html></html>".getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE_NEW);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).isEqualTo("<html></html>");
+    }
+
+    @Test
+    public void flushWaitsForQueuedWritesWhenQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger written = new AtomicInteger();
+        writer.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.incrementAndGet();
+        });
+        // fill the queue behind the blocked write
+        for (int i = 0; i < 32; i++) {
+            writer.execute(written::incrementAndGet);
+        }
+        new Timer(true).schedule(new TimerTask() {
+            @Override
+            public void run() {
+                release.countDown();
+            }
+        }, 200);
+
+        writer.flush();
+        assertThat(written.get()).isEqualTo(33);
+    }
+
+    @Test
+    public void transcodesScreenshotToJpeg() throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_ARGB), "png", png);
+
+        byte[] jpeg = ArtifactWriter.toJpeg(png.toByteArray(), 0.5f);
+        assertThat(ImageIO.read(new ByteArrayInputStream(jpeg)).getWidth()).isEqualTo(200);
+        assertThat(jpeg[0]).isEqualTo((byte) 0xFF);
+    }
+}
@@ -1,12 +1,15 @@
 package com.lithium.mineraloil.selenium.elements;
 
 import com.lithium.mineraloil.selenium.helpers.BaseTest;
+import org.awaitility.core.ConditionTimeoutException;
 import org.junit.Test;
 import org.openqa.selenium.By;
 
 import java.util.List;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class BaseElementTest extends BaseTest {
 
@@ -26,6 +29,15 @@ public class BaseElementTest extends BaseTest {
         assertThat(child.getText()).isEqualTo("Nested Value With Shared Class");
     }
 
+    @Test
+    public void mixedLocatorNestedElementLocate() {
+        BaseElement grandparent = driver.createBaseElement(By.id("nested_div"));
+        BaseElement parent = grandparent.createBaseElement(By.cssSelector("#last_level"));
+        BaseElement child = parent.createBaseElement(By.className("duplicate_class"));
+        assertThat(child.getText()).isEqualTo("Nested Value With Shared Class");
+        assertThat(parent.createBaseElement(By.tagName("div")).toList()).hasSize(1);
+    }
+
     @Test
     public void doubleSlashNestedElementLocate() {
         BaseElement parent = driver.createBaseElement(By.xpath("//div[@id='nested_div']"));
@@ -39,6 +51,14 @@ public class BaseElementTest extends BaseTest {
         assertThat(elements.size() > 1).isTrue();
     }
 
+    @Test
+    public void elementCollectionRelocatesStaleElements() {
+        List<BaseElement> elements = driver.createBaseElement(By.xpath("//div[@class='duplicate_class']")).toList();
+        assertThat(elements.get(1).getText()).isEqualTo("Nested Value With Shared Class");
+        driver.executeScript("var div = document.getElementById('last_level'); div.innerHTML = div.innerHTML;");
+        assertThat(elements.get(1).getText()).isEqualTo("Nested Value With Shared Class");
+    }
+
     @Test
     public void dotDoubleSlashNestedElementLocate() {
         BaseElement parent = driver.createBaseElement(By.xpath("//div[@id='nested_div']"));
@@ -63,4 +83,39 @@ public class BaseElementTest extends BaseTest {
         assertThat(checkboxElement.isChecked()).isFalse();
     }
 
+    @Test
+    public void handleCacheRelocatesAfterDomChange() {
+        BaseElement div = driver.createBaseElement(By.xpath("//div[@id='displayed_element']")).withHandleCache();
+        assertThat(div.getText()).isEqualTo("Displayed Element");
+        driver.executeScript("document.getElementById('displayed_element').textContent = 'Changed Element';");
+        assertThat(div.getText()).isEqualTo("Changed Element");
+    }
+
+    @Test
+    public void browserWaitReturnsOnceElementIsDisplayed() {
+        driver.setWaitMode(WaitMode.BROWSER);
+        BaseElement div = driver.createBaseElement(By.id("hidden_element"));
+        driver.executeScript("setTimeout(function() { document.getElementById('hidden_element').style.display = 'block'; }, 500);");
+        div.waitUntilDisplayed(SECONDS, 5);
+        assertThat(div.isDisplayed()).isTrue();
+        assertThatThrownBy(() -> div.waitUntilNotDisplayed(SECONDS, 1)).isInstanceOf(ConditionTimeoutException.class);
+    }
+
+    @Test
+    public void snapshotReadsElementState() {
+        ElementSnapshot snapshot = driver.createBaseElement(By.id("disabled_button")).snapshot("id", "class");
+        assertThat(snapshot.getTagName()).isEqualTo("button");
+        assertThat(snapshot.getText()).isEqualTo("Disabled Button");
+        assertThat(snapshot.isDisplayed()).isTrue();
+        assertThat(snapshot.isEnabled()).isFalse();
+        assertThat(snapshot.getAttribute("id")).isEqualTo("disabled_button");
+
+        ElementSnapshot styled = driver.createBaseElement(By.id("disabled_button")).snapshot("id", "css:display");
+        assertThat(styled.getCssValue("display")).isEqualTo(driver.createBaseElement(By.id("disabled_button")).getCssValue("display"));
+        assertThat(styled.getAttributes()).containsOnlyKeys("id");
+
+        List<ElementSnapshot> buttons = driver.snapshot(By.xpath("//div[@id='buttons']/button"));
+        assertThat(buttons).extracting(ElementSnapshot::getText).containsExactly("Active Button", "Disabled Button");
+    }
+
 }
@@ -0,0 +1,80 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.Logs;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsoleErrorConditionTest {
+    private final ConsoleErrorCondition condition = new ConsoleErrorCondition();
+    private final List<ConsoleLogCollector> collectors = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        collectors.forEach(ConsoleLogCollector::stop);
+    }
+
+    @Test
+    public void errorsLoggedBeforeFirstCheckAreIgnored() {
+        List<LogEntry> log = new CopyOnWriteArrayList<>();
+        ConsoleLogCollector collector = collector(log);
+        log.add(error("Uncaught TypeError: before"));
+
+        assertThat(condition.check(collector)).isNull();
+        log.add(error("Uncaught TypeError: after"));
+        collector.pull();
+        assertThat(condition.check(collector)).contains("after");
+        assertThat(condition.check(collector)).isNull();
+    }
+
+    @Test
+    public void sessionsAreTrackedSeparately() {
+        List<LogEntry> firstLog = new CopyOnWriteArrayList<>();
+        List<LogEntry> secondLog = new CopyOnWriteArrayList<>();
+        ConsoleLogCollector first = collector(firstLog);
+        ConsoleLogCollector second = collector(secondLog);
+        condition.check(first);
+        condition.check(second);
+
+        // the first session's log is further along, which mustn't hide the second session's error
+        for (int i = 0; i < 5; i++) {
+            firstLog.add(error("Uncaught TypeError: first " + i));
+        }
+        first.pull();
+        assertThat(condition.check(first)).contains("first 0");
+
+        secondLog.add(error("Uncaught TypeError: second"));
+        second.pull();
+        assertThat(condition.check(second)).contains("second");
+    }
+
+    private ConsoleLogCollector collector(List<LogEntry> log) {
+        Logs logs = (Logs) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Logs.class}, (proxy, method, args) -> {
+            // the browser drains its log on every read, the collector also reads it in the background
+            List<LogEntry> read = new ArrayList<>(log);
+            log.removeAll(read);
+            return new LogEntries(read);
+        });
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{WebDriver.Options.class},
+                                                                               (proxy, method, args) -> logs);
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{WebDriver.class},
+                                                              (proxy, method, args) -> options);
+        ConsoleLogCollector collector = new ConsoleLogCollector(driver);
+        collectors.add(collector);
+        return collector;
+    }
+
+    private static LogEntry error(String message) {
+        return new LogEntry(Level.SEVERE, System.currentTimeMillis(), message);
+    }
+}
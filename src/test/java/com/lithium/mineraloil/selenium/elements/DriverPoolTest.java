@@ -0,0 +1,112 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class DriverPoolTest {
+    private final List<FakeSession> sessions = Collections.synchronizedList(new ArrayList<>());
+    private DriverPool pool;
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void releasedSessionIsScrubbedAndReused() {
+        pool = new DriverPool(null, this::startSession, 1, 2);
+        await().atMost(5, SECONDS).until(() -> pool.getIdleCount() == 1);
+
+        DriverInstance driverInstance = pool.lease();
+        pool.release(driverInstance);
+        assertThat(pool.lease()).isSameAs(driverInstance);
+        assertThat(sessions.get(0).calls).contains("deleteAllCookies", "get about:blank");
+        assertThat(sessions.get(0).quit).isFalse();
+    }
+
+    @Test
+    public void brokenSessionIsReplaced() {
+        pool = new DriverPool(null, this::startSession, 1, 1);
+        await().atMost(5, SECONDS).until(() -> pool.getIdleCount() == 1);
+        sessions.get(0).broken = true;
+
+        DriverInstance driverInstance = pool.lease();
+        assertThat(sessions).hasSize(2);
+        assertThat(sessions.get(0).quit).isTrue();
+        assertThat(driverInstance.getDriver()).isSameAs(sessions.get(1).driver);
+        assertThat(pool.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void driversOnSeparateThreadsGetSeparateSessions() throws Exception {
+        pool = new DriverPool(null, this::startSession, 0, 16);
+        ExecutorService workers = Executors.newFixedThreadPool(16);
+        List<Future<WebDriver>> leased = new ArrayList<>();
+        CountDownLatch allStarted = new CountDownLatch(16);
+        for (int i = 0; i < 16; i++) {
+            leased.add(workers.submit(() -> {
+                Driver driver = new Driver();
+                driver.setDriverPool(pool);
+                driver.startDriver();
+                allStarted.countDown();
+                allStarted.await();
+                WebDriver session = driver.getDriverInstance().getDriver();
+                driver.stop();
+                return session;
+            }));
+        }
+        Set<WebDriver> sessionsUsed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<WebDriver> session : leased) {
+            sessionsUsed.add(session.get(30, SECONDS));
+        }
+        workers.shutdown();
+        assertThat(sessionsUsed).hasSize(16);
+        assertThat(pool.getIdleCount()).isEqualTo(16);
+    }
+
+    @Test
+    public void sessionStartedAfterCloseIsQuit() throws Exception {
+        CountDownLatch starting = new CountDownLatch(1);
+        CountDownLatch finishStart = new CountDownLatch(1);
+        pool = new DriverPool(null, () -> {
+            starting.countDown();
+            // like a browser constructor, the start isn't cut short by close() interrupting it
+            while (true) {
+                try {
+                    finishStart.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // keep starting
+                }
+            }
+            return startSession();
+        }, 1, 1);
+        assertThat(starting.await(5, SECONDS)).isTrue();
+
+        pool.close();
+        finishStart.countDown();
+        await().atMost(5, SECONDS).until(() -> !sessions.isEmpty() && sessions.get(0).quit);
+        assertThat(pool.getIdleCount()).isZero();
+    }
+
+    private DriverInstance startSession() {
+        FakeSession session = new FakeSession();
+        sessions.add(session);
+        return new DriverInstance(session.driver);
+    }
+}
@@ -5,6 +5,10 @@ import com.lithium.mineraloil.selenium.helpers.BaseTest;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.openqa.selenium.By;
+import org.openqa.selenium.logging.LogEntry;
+
+import java.util.List;
+import java.util.logging.Level;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -77,4 +81,33 @@ public class DriverTest extends BaseTest {
         assertThatThrownBy(() -> driver.switchDriver(1)).isInstanceOf(IllegalArgumentException.class);
 
     }
+
+    @Test
+    public void flightRecorderKeepsLastActions() {
+        FlightRecorder flightRecorder = driver.startFlightRecorder();
+        flightRecorder.setMaxFrames(2);
+        flightRecorder.setMinCaptureIntervalMs(0);
+        flightRecorder.setOverheadBudget(1);
+        try {
+            driver.createTextElement(By.id("payload")).type("secret");
+            driver.createSelectListElement(By.id("fruit")).selectByValue("pear");
+            driver.createBaseElement(By.id("payload")).click();
+
+            assertThat(flightRecorder.getFrames()).extracting("action").containsExactly("select", "click");
+            assertThat(flightRecorder.getFrames().get(0).getScreenshot()).isNotNull();
+        } finally {
+            driver.stopFlightRecorder();
+        }
+    }
+
+    @Test
+    public void consoleLogSinceMarker() {
+        driver.executeScript("console.error('before marker');");
+        long marker = driver.markConsoleLog();
+        driver.executeScript("console.error('after marker'); console.info('info after marker');");
+
+        List<LogEntry> entries = driver.getConsoleLogSince(marker, Level.SEVERE);
+        assertThat(entries).hasSize(1);
+        assertThat(entries.get(0).getMessage()).contains("after marker");
+    }
 }
@@ -0,0 +1,53 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.Logs;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// just enough of a browser session for the pool to health check, scrub and quit
+class FakeSession {
+    final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    volatile boolean broken;
+    volatile boolean quit;
+    final WebDriver driver;
+
+    FakeSession() {
+        driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getWindowHandles":
+                    if (broken) throw new WebDriverException("session is gone");
+                    return Collections.singleton("window");
+                case "switchTo":
+                    return stub(WebDriver.TargetLocator.class, proxy);
+                case "manage":
+                    return stub(WebDriver.Options.class, proxy);
+                case "get":
+                    calls.add("get " + args[0]);
+                    return null;
+                case "quit":
+                    quit = true;
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private Object stub(Class<?> type, Object driver) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+            calls.add(method.getName());
+            if (method.getName().equals("logs")) {
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Logs.class},
+                                              (logs, logsMethod, logsArgs) -> new LogEntries(Collections.emptyList()));
+            }
+            return method.getReturnType() == WebDriver.class ? driver : null;
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.io.Zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RemoteUploadCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RemoteUploadCache cache = new RemoteUploadCache();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private FileTransport node;
+
+    @Before
+    public void setUp() {
+        // stands in for the grid node: unzips the payload the same way the upload endpoint does
+        node = (driver, encodedZip) -> {
+            try {
+                File directory = folder.newFolder("node" + uploads.incrementAndGet());
+                Zip.unzip(encodedZip, directory);
+                return directory.listFiles()[0].getAbsolutePath();
+            } catch (IOException e) {
+                throw new WebDriverException(e);
+            }
+        };
+    }
+
+    @Test
+    public void uploadsFileContent() throws IOException {
+        File file = write("local/fixture.csv", "a,b,c");
+        String remotePath = cache.getRemotePath(null, node, file);
+        assertThat(new File(remotePath).getName()).isEqualTo("fixture.csv");
+        assertThat(FileUtils.readFileToString(new File(remotePath), StandardCharsets.UTF_8)).isEqualTo("a,b,c");
+    }
+
+    @Test
+    public void sameContentIsOnlyUploadedOnce() throws IOException {
+        String remotePath = cache.getRemotePath(null, node, write("first/fixture.csv", "a,b,c"));
+        assertThat(cache.getRemotePath(null, node, write("second/fixture.csv", "a,b,c"))).isEqualTo(remotePath);
+        assertThat(uploads.get()).isEqualTo(1);
+
+        cache.getRemotePath(null, node, write("third/fixture.csv", "d,e,f"));
+        assertThat(uploads.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void unchangedFileIsNotHashedAgain() throws IOException {
+        File file = write("local/fixture.csv", "a,b,c");
+        long lastModified = file.lastModified();
+        String remotePath = cache.getRemotePath(null, node, file);
+
+        // same path, length and modification time, so the remembered hash is used
+        FileUtils.writeStringToFile(file, "x,y,z", StandardCharsets.UTF_8);
+        assertThat(file.setLastModified(lastModified)).isTrue();
+        assertThat(cache.getRemotePath(null, node, file)).isEqualTo(remotePath);
+
+        assertThat(file.setLastModified(lastModified + 2000)).isTrue();
+        cache.getRemotePath(null, node, file);
+        assertThat(uploads.get()).isEqualTo(2);
+    }
+
+    private File write(String path, String content) throws IOException {
+        File file = new File(folder.getRoot(), path);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,80 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.lithium.mineraloil.selenium.exceptions.WaitAbortedException;
+import org.junit.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RetrierTest {
+    private final Driver driver = new Driver();
+    private final Retrier retrier = new Retrier(driver);
+
+    @Test
+    public void retriesUpToMaxAttempts() {
+        driver.setRetryPolicy(BackoffRetryPolicy.defaults().withMaxAttempts(3).withInitialBackoffMs(1));
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        assertThatThrownBy(() -> retrier.call(1000, () -> {
+            attempts.incrementAndGet();
+            throw new NoSuchElementException("missing");
+        }, failures::incrementAndGet)).isInstanceOf(NoSuchElementException.class);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(failures.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void returnsOnceCallSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = retrier.call(1000, () -> {
+            if (attempts.incrementAndGet() == 1) throw new StaleElementReferenceException("stale");
+            return "found";
+        }, () -> {});
+        assertThat(result).isEqualTo("found");
+    }
+
+    @Test
+    public void backsOffUntilTimeout() {
+        driver.setRetryPolicy(BackoffRetryPolicy.defaults().withInitialBackoffMs(20).withJitter(0));
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retrier.callUntilTimeout(500, () -> {
+            attempts.incrementAndGet();
+            throw new NoSuchElementException("missing");
+        }, () -> {})).isInstanceOf(NoSuchElementException.class);
+        // 20 + 40 + 80 + 160 ms of backoff fit in the budget, the next 320 ms doesn't
+        assertThat(attempts.get()).isEqualTo(5);
+    }
+
+    @Test
+    public void doesNotRetryDeadBrowser() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retrier.callUntilTimeout(1000, () -> {
+            attempts.incrementAndGet();
+            throw new UnreachableBrowserException("gone");
+        }, () -> {})).isInstanceOf(UnreachableBrowserException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void staleElementsRetryWithoutBackoff() {
+        assertThat(BackoffRetryPolicy.defaults().getBackoffMillis(1, new StaleElementReferenceException("stale"))).isZero();
+        assertThat(BackoffRetryPolicy.defaults().withJitter(0).getBackoffMillis(3, new NoSuchElementException("missing"))).isEqualTo(200);
+    }
+
+    @Test
+    public void abortConditionEndsRetries() {
+        driver.setRetryPolicy(BackoffRetryPolicy.defaults().withMaxAttempts(10).withInitialBackoffMs(1));
+        driver.addAbortCondition(d -> "error page is displayed");
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retrier.call(1000, () -> {
+            attempts.incrementAndGet();
+            throw new NoSuchElementException("missing");
+        }, () -> {})).isInstanceOf(WaitAbortedException.class).hasMessage("error page is displayed");
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+}
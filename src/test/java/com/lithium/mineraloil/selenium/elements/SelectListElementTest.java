@@ -0,0 +1,45 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.lithium.mineraloil.selenium.helpers.BaseTest;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SelectListElementTest extends BaseTest {
+
+    @Test
+    public void getOptionsReadsTextValueAndSelectedState() {
+        SelectListElement selectList = driver.createSelectListElement(By.id("fruit"));
+        assertThat(selectList.getAvailableOptions()).containsExactly("Apple", "Pear", "Plum");
+        assertThat(selectList.getOptions().get(1)).isEqualTo(new SelectOption("Pear", "pear", 1, false));
+        assertThat(selectList.getSelectedOption()).isEqualTo("Apple");
+    }
+
+    @Test
+    public void selectByValueFiresChangeEvent() {
+        SelectListElement selectList = driver.createSelectListElement(By.id("fruit"));
+        selectList.selectByValue("plum");
+        assertThat(selectList.getSelectedOption()).isEqualTo("Plum");
+        assertThat(selectList.getAttribute("data-changed")).isEqualTo("plum");
+
+        selectList.selectByIndex(1);
+        assertThat(selectList.getSelectedOption()).isEqualTo("Pear");
+
+        selectList.selectIfContains("App");
+        assertThat(selectList.getAvailableOptions()).hasSize(3);
+        assertThat(selectList.getSelectedOption()).isEqualTo("Apple");
+    }
+
+    @Test
+    public void selectByValueRejectsDisabledOption() {
+        SelectListElement selectList = driver.createSelectListElement(By.id("fruit"));
+        driver.executeScript("document.querySelector('#fruit option[value=plum]').disabled = true;");
+
+        assertThatThrownBy(() -> selectList.selectByValue("plum")).isInstanceOf(NoSuchElementException.class)
+                                                                   .hasMessageContaining("'Plum' is disabled");
+        assertThat(selectList.getSelectedOption()).isEqualTo("Apple");
+    }
+}
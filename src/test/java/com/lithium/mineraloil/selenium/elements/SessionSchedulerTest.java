@@ -0,0 +1,110 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class SessionSchedulerTest {
+    private final List<FakeSession> sessions = Collections.synchronizedList(new ArrayList<>());
+    private SessionScheduler scheduler;
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    public void tasksAreSpreadAcrossSessions() throws Exception {
+        scheduler = new SessionScheduler(4, this::startDriver);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(scheduler.submit(driver -> sleep(10)));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).get(30, SECONDS);
+
+        assertThat(scheduler.getStats()).hasSize(4);
+        assertThat(scheduler.getStats().stream().mapToLong(SessionScheduler.SessionStats::getCompleted).sum()).isEqualTo(40);
+        assertThat(scheduler.getStats()).allMatch(stats -> stats.getCompleted() > 0);
+    }
+
+    @Test
+    public void deadSessionIsReplacedAndTaskRetriedOnce() throws Exception {
+        scheduler = new SessionScheduler(1, this::startDriver);
+        AtomicInteger attempts = new AtomicInteger();
+        scheduler.submit(driver -> {
+            if (attempts.incrementAndGet() == 1) {
+                sessions.get(0).broken = true;
+                throw new IllegalStateException("browser crashed");
+            }
+        }).get(30, SECONDS);
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(sessions).hasSize(2);
+        assertThat(scheduler.getStats().get(0).getReplaced()).isEqualTo(1);
+    }
+
+    @Test
+    public void taskFailureOnHealthySessionIsReported() throws Exception {
+        scheduler = new SessionScheduler(1, this::startDriver);
+        try {
+            scheduler.submit(driver -> {
+                throw new IllegalStateException("assertion in the test");
+            }).get(30, SECONDS);
+            fail("task should have failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).hasMessage("assertion in the test");
+        }
+        assertThat(sessions).hasSize(1);
+        assertThat(scheduler.getStats().get(0).getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    public void tasksSubmittedWhileLastSessionDiesAreFailed() throws Exception {
+        scheduler = new SessionScheduler(1, () -> {
+            sleep(20);
+            throw new IllegalStateException("no browser available");
+        });
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 200;
+        // keeps submitting from before the session gives up until after it has
+        while (System.currentTimeMillis() < deadline) {
+            tasks.add(scheduler.submit(driver -> {}));
+        }
+        for (CompletableFuture<Void> task : tasks) {
+            try {
+                task.get(30, SECONDS);
+                fail("task should have failed");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+            }
+        }
+    }
+
+    private Driver startDriver() {
+        FakeSession session = new FakeSession();
+        sessions.add(session);
+        DriverPool pool = new DriverPool(null, () -> new DriverInstance(session.driver), 0, 1);
+        Driver driver = new Driver();
+        driver.setDriverPool(pool);
+        driver.startDriver();
+        return driver;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TableDataTest {
+
+    private static TableData column(String... values) {
+        return new TableData(Collections.singletonList("Amount"), Collections.singletonList(Arrays.asList(values)));
+    }
+
+    @Test
+    public void ignoresGroupingCommas() {
+        assertThat(column("1,200", "-1,234,567", " 35 ").getLongColumn("Amount")).containsExactly(1200, -1234567, 35);
+        assertThat(column("1,234.5", "0.5").getDoubleColumn("Amount")).containsExactly(1234.5, 0.5);
+    }
+
+    @Test
+    public void rejectsDecimalCommas() {
+        assertThatThrownBy(() -> column("0,5").getDoubleColumn("Amount"))
+                .isInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("'0,5'")
+                .hasMessageContaining("'Amount'");
+        assertThatThrownBy(() -> column("1,25").getIntColumn("Amount")).isInstanceOf(NumberFormatException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.lithium.mineraloil.selenium.helpers.BaseTest;
+import org.junit.Test;
+import org.openqa.selenium.By;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TableElementTest extends BaseTest {
+
+    @Test
+    public void extractReadsHeadersAndColumns() {
+        TableData data = driver.createTableElement(By.id("report")).extract();
+        assertThat(data.getHeaders()).containsExactly("Name", "Count", "Price");
+        assertThat(data.getRowCount()).isEqualTo(3);
+        assertThat(data.getColumn("Name")).containsExactly("Apples", "Pears", "Plums");
+        assertThat(data.getIntColumn("Count")).containsExactly(1200, 35, 7);
+        assertThat(data.getDoubleColumn("Price")[2]).isNaN();
+    }
+
+    @Test
+    public void extractIsReadAgainOnceTableChanges() {
+        TableElement table = driver.createTableElement(By.id("report"));
+        TableData data = table.extract();
+        assertThat(table.extract()).isSameAs(data);
+
+        driver.executeScript("document.querySelector('#report tbody tr td').textContent = 'Oranges';");
+        assertThat(table.extract().getColumn("Name")).containsExactly("Oranges", "Pears", "Plums");
+    }
+
+    @Test
+    public void getHashUsesThHeaders() {
+        TableElement table = driver.createTableElement(By.id("report"));
+        assertThat(table.getHash().get(1)).containsEntry("Name", "Pears").containsEntry("Count", "35");
+    }
+
+    @Test
+    public void streamRowsDropsRowsAlreadySeen() {
+        List<String> names = driver.createTableElement(By.id("report"))
+                                   .streamRows("Name")
+                                   .map(row -> row.get("Name"))
+                                   .collect(Collectors.toList());
+        assertThat(names).containsExactly("Apples", "Pears", "Plums");
+    }
+
+    @Test
+    public void findRowReturnsMatchingRow() {
+        TableElement table = driver.createTableElement(By.id("report"));
+        TableRowElement row = table.findRow("Name", "Pears");
+        assertThat(row.getText()).contains("Pears").contains("35");
+        assertThat(table.findRows("Price", CellMatcher.matches("^\\d")).size()).isEqualTo(2);
+        assertThat(table.findRows("Name", CellMatcher.startsWith("Pl")).get(0).getText()).contains("Plums");
+    }
+
+    @Test
+    public void findRowFollowsReorderedColumns() {
+        TableElement table = driver.createTableElement(By.id("report"));
+        assertThat(table.findRow("Name", "Pears").getText()).contains("Pears");
+
+        // move the Name column to the end
+        driver.executeScript("Array.prototype.forEach.call(document.querySelectorAll('#report tr'), function(row) { row.appendChild(row.cells[0]); });");
+        assertThat(table.findRow("Name", "Plums").getText()).contains("Plums");
+        assertThat(table.findRows("Count", "35").get(0).getText()).contains("Pears");
+    }
+}
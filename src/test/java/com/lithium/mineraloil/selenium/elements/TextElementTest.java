@@ -0,0 +1,29 @@
+package com.lithium.mineraloil.selenium.elements;
+
+import com.lithium.mineraloil.selenium.helpers.BaseTest;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.openqa.selenium.By;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TextElementTest extends BaseTest {
+
+    @Test
+    public void nativeSetterReplacesValueAndFiresInput() {
+        TextElement textElement = driver.createTextElement(By.id("payload")).withInputStrategy(InputStrategy.NATIVE_SETTER);
+        textElement.type("previous value");
+        String payload = StringUtils.repeat("{\"key\": \"value\"}", 3000);
+        textElement.type(payload);
+        assertThat(textElement.getAttribute("value")).isEqualTo(payload);
+        assertThat(textElement.getAttribute("data-input")).isEqualTo(String.valueOf(payload.length()));
+    }
+
+    @Test
+    public void chunkedTypesWholeValue() {
+        TextElement textElement = driver.createTextElement(By.id("payload")).withInputStrategy(InputStrategy.CHUNKED);
+        String payload = StringUtils.repeat("0123456789", 250);
+        textElement.type(payload);
+        assertThat(textElement.getAttribute("value")).isEqualTo(payload);
+    }
+}
@@ -0,0 +1,85 @@
+package com.lithium.mineraloil.selenium.metrics;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommandMetricsTest {
+
+    @Test
+    public void percentilesStayWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(millis, TimeUnit.MILLISECONDS);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMax()).isEqualTo(1_000_000);
+        assertThat(snapshot.getP50()).isBetween(500_000L, 500_000L * 107 / 100);
+        assertThat(snapshot.getP99()).isBetween(990_000L, 1_000_000L);
+    }
+
+    @Test
+    public void bucketsCoverEveryValue() {
+        for (long micros : new long[]{0, 31, 32, 33, 1023, 1024, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(micros);
+            assertThat(Histogram.highestValueOf(bucket)).isGreaterThanOrEqualTo(micros);
+            if (bucket > 0) assertThat(Histogram.highestValueOf(bucket - 1)).isLessThan(micros);
+        }
+    }
+
+    @Test
+    public void instrumentedDriverTimesCommandsAndElements() {
+        WebElement element = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{WebElement.class},
+                                                                 (proxy, method, args) -> method.getName().equals("getText") ? "text" : null);
+        WebDriver raw = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{WebDriver.class, JavascriptExecutor.class},
+                                                           (proxy, method, args) -> {
+                                                               if (method.getName().equals("findElement")) return element;
+                                                               // the driver should only ever see the real element
+                                                               if (method.getName().equals("executeScript")) return ((Object[]) args[1])[0] == element;
+                                                               return null;
+                                                           });
+        CommandMetrics metrics = new CommandMetrics();
+        WebDriver driver = InstrumentedWebDriver.wrap(raw, metrics);
+
+        WebElement found = driver.findElement(By.id("name"));
+        assertThat(found.getText()).isEqualTo("text");
+        assertThat(((WrapsElement) found).getWrappedElement()).isSameAs(element);
+        assertThat(((JavascriptExecutor) driver).executeScript("return arguments[0]", found)).isEqualTo(true);
+        assertThat(InstrumentedWebDriver.unwrap(driver)).isSameAs(raw);
+
+        assertThat(metrics.getCommands()).containsOnlyKeys("findElement", "element.getText", "executeScript");
+        assertThat(metrics.getCommands().get("findElement").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void exportersWriteEveryCategory() throws Exception {
+        CommandMetrics metrics = new CommandMetrics();
+        metrics.recordCommand("findElement", TimeUnit.MILLISECONDS.toNanos(12));
+        metrics.recordWait("DISPLAYED", TimeUnit.MILLISECONDS.toNanos(300));
+        metrics.recordRetry("By.id: name");
+        File csv = File.createTempFile("metrics", ".csv");
+        File prometheus = File.createTempFile("metrics", ".prom");
+        metrics.addExporter(new CsvExporter(csv));
+        metrics.addExporter(new PrometheusExporter(prometheus));
+        metrics.export();
+
+        assertThat(new String(Files.readAllBytes(csv.toPath()), "UTF-8"))
+                .contains("command,\"findElement\",1,")
+                .contains("wait,\"DISPLAYED\",1,")
+                .contains("retry,\"By.id: name\",1");
+        assertThat(new String(Files.readAllBytes(prometheus.toPath()), "UTF-8"))
+                .contains("mineraloil_command_duration_seconds_count{command=\"findElement\"} 1")
+                .contains("mineraloil_retries_total{locator=\"By.id: name\"} 1");
+    }
+}